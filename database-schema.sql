@@ -63,7 +63,8 @@ CREATE TABLE articles (
     content TEXT NOT NULL,
     word_count INTEGER,
     created_date TIMESTAMP NOT NULL DEFAULT NOW(),
-    published_date TIMESTAMP
+    published_date TIMESTAMP,
+    generation_status VARCHAR(20) NOT NULL DEFAULT 'COMPLETE'
 );
 
 CREATE INDEX idx_created_date ON articles(created_date);
@@ -92,6 +93,90 @@ CREATE TABLE exploration_logs (
 CREATE INDEX idx_execution_date ON exploration_logs(execution_date);
 CREATE INDEX idx_log_niche_id ON exploration_logs(niche_id);
 
+-- =====================================================
+-- SUGGESTION_CACHE TABLE
+-- =====================================================
+CREATE TABLE suggestion_cache (
+    query_text VARCHAR(500) PRIMARY KEY,
+    suggestions TEXT NOT NULL,
+    fetched_date TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_suggestion_fetched_date ON suggestion_cache(fetched_date);
+
+-- =====================================================
+-- LLM_RESPONSE_CACHE TABLE
+-- =====================================================
+CREATE TABLE llm_response_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    model VARCHAR(255) NOT NULL,
+    content TEXT NOT NULL,
+    finish_reason VARCHAR(50),
+    input_tokens INTEGER,
+    output_tokens INTEGER,
+    latency_ms BIGINT,
+    created_date TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_llm_cache_created_date ON llm_response_cache(created_date);
+
+-- =====================================================
+-- WORKFLOW_RUNS TABLE
+-- =====================================================
+CREATE TABLE workflow_runs (
+    id BIGSERIAL PRIMARY KEY,
+    niche_id BIGINT NOT NULL REFERENCES niches(id) ON DELETE CASCADE,
+    status VARCHAR(50) NOT NULL DEFAULT 'RUNNING',
+    current_stage VARCHAR(50),
+    last_completed_stage VARCHAR(50),
+    context_json TEXT,
+    attempts INTEGER NOT NULL DEFAULT 1,
+    error_message TEXT,
+    started_date TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_date TIMESTAMP NOT NULL DEFAULT NOW(),
+    completed_date TIMESTAMP
+);
+
+CREATE INDEX idx_workflow_run_niche_id ON workflow_runs(niche_id);
+CREATE INDEX idx_workflow_run_status ON workflow_runs(status);
+
+-- =====================================================
+-- KEYWORD_VARIANTS TABLE
+-- =====================================================
+CREATE TABLE keyword_variants (
+    id BIGSERIAL PRIMARY KEY,
+    keyword_id BIGINT NOT NULL REFERENCES potential_keywords(id) ON DELETE CASCADE,
+    variant_text VARCHAR(255) NOT NULL,
+    discovered_date TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_keyword_variant_text ON keyword_variants(variant_text);
+CREATE INDEX idx_keyword_variant_keyword_id ON keyword_variants(keyword_id);
+
+-- =====================================================
+-- NICHE_STATS TABLES (maintained counters)
+-- =====================================================
+CREATE TABLE niche_stats (
+    niche_id BIGINT PRIMARY KEY REFERENCES niches(id) ON DELETE CASCADE,
+    total_keywords BIGINT NOT NULL DEFAULT 0,
+    unwritten_keywords BIGINT NOT NULL DEFAULT 0,
+    written_keywords BIGINT NOT NULL DEFAULT 0,
+    rejected_keywords BIGINT NOT NULL DEFAULT 0,
+    scored_keywords BIGINT NOT NULL DEFAULT 0,
+    score_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    total_articles BIGINT NOT NULL DEFAULT 0,
+    updated_date TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE niche_depth_stats (
+    id BIGSERIAL PRIMARY KEY,
+    niche_id BIGINT NOT NULL REFERENCES niches(id) ON DELETE CASCADE,
+    depth_level INTEGER NOT NULL,
+    keyword_count BIGINT NOT NULL DEFAULT 0,
+    
+    CONSTRAINT uk_niche_depth_stats UNIQUE (niche_id, depth_level)
+);
+
 -- =====================================================
 -- USEFUL QUERIES
 -- =====================================================
@@ -121,6 +206,20 @@ LEFT JOIN potential_keywords parent ON pk.parent_keyword_id = parent.id
 WHERE pk.niche_id = 1
 ORDER BY pk.depth_level, pk.qualification_score DESC;
 
+-- Get the subtree under a keyword, depth-first
+WITH RECURSIVE tree AS (
+    SELECT id, keyword_text, qualification_score, 0 AS distance, ARRAY[id] AS path
+    FROM potential_keywords
+    WHERE id = 1
+    UNION ALL
+    SELECT pk.id, pk.keyword_text, pk.qualification_score, t.distance + 1, t.path || pk.id
+    FROM potential_keywords pk
+    JOIN tree t ON pk.parent_keyword_id = t.id
+)
+SELECT repeat('  ', distance) || keyword_text AS keyword, qualification_score
+FROM tree
+ORDER BY path;
+
 -- Get top performing keywords (not yet written)
 SELECT 
     keyword_text,
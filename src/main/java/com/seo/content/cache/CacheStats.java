@@ -0,0 +1,29 @@
+package com.seo.content.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+    private long memoryHits;
+    private long persistentHits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long persistentErrors;
+    private int memorySize;
+    
+    public long getTotalHits() {
+        return memoryHits + persistentHits;
+    }
+    
+    public double getHitRatio() {
+        long lookups = getTotalHits() + misses;
+        return lookups == 0 ? 0.0 : (double) getTotalHits() / lookups;
+    }
+}
@@ -0,0 +1,17 @@
+package com.seo.content.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmCacheStats {
+    private CacheStats cache;
+    private long bypassed;
+    private long tokensSaved;
+    private long latencySavedMs;
+}
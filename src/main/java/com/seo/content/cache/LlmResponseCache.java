@@ -0,0 +1,176 @@
+package com.seo.content.cache;
+
+import com.seo.content.dto.LLMDto.CompletionResult;
+import com.seo.content.dto.LLMDto.Usage;
+import com.seo.content.model.LlmResponseCacheEntry;
+import com.seo.content.repository.LlmResponseCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed cache of LLM completions for deterministic prompts.
+ * Keyed on a hash of everything that shapes the response; backed by an in-memory
+ * LRU/TTL tier and the llm_response_cache table.
+ */
+@Component
+@Slf4j
+public class LlmResponseCache {
+    
+    private final LlmResponseCacheRepository cacheRepository;
+    private final LruTtlCache<String, CompletionResult> memoryTier;
+    private final Duration ttl;
+    private final boolean enabled;
+    
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong persistentErrors = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong tokensSaved = new AtomicLong();
+    private final AtomicLong latencySavedMs = new AtomicLong();
+    
+    public LlmResponseCache(
+            LlmResponseCacheRepository cacheRepository,
+            @Value("${llm.cache.enabled:true}") boolean enabled,
+            @Value("${llm.cache.max-entries:2000}") int maxEntries,
+            @Value("${llm.cache.ttl-hours:168}") long ttlHours) {
+        this.cacheRepository = cacheRepository;
+        this.enabled = enabled;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.memoryTier = new LruTtlCache<>(maxEntries, ttl);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public String cacheKey(String model, Double temperature, Integer maxTokens, String systemPrompt, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] {
+                    model, String.valueOf(temperature), String.valueOf(maxTokens), systemPrompt, prompt}) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    public Optional<CompletionResult> get(String key) {
+        Optional<CompletionResult> cached = memoryTier.get(key);
+        
+        if (cached.isEmpty()) {
+            cached = loadPersistent(key);
+        }
+        
+        cached.ifPresent(this::recordSavings);
+        return cached;
+    }
+    
+    public void put(String key, String model, CompletionResult result) {
+        memoryTier.put(key, result);
+        
+        Usage usage = result.getUsage();
+        try {
+            cacheRepository.save(LlmResponseCacheEntry.builder()
+                    .cacheKey(key)
+                    .model(model)
+                    .content(result.getContent())
+                    .finishReason(result.getFinishReason())
+                    .inputTokens(usage != null ? usage.getInputTokens() : null)
+                    .outputTokens(usage != null ? usage.getOutputTokens() : null)
+                    .latencyMs(result.getLatencyMs())
+                    .createdDate(LocalDateTime.now())
+                    .build());
+        } catch (Exception e) {
+            persistentErrors.incrementAndGet();
+            log.warn("Failed to persist LLM cache entry {}", key, e);
+        }
+    }
+    
+    /**
+     * Drops an entry whose response turned out to be unusable
+     */
+    public void invalidate(String key) {
+        memoryTier.invalidate(key);
+        try {
+            cacheRepository.deleteById(key);
+        } catch (Exception e) {
+            persistentErrors.incrementAndGet();
+            log.warn("Failed to invalidate LLM cache entry {}", key, e);
+        }
+    }
+    
+    public void recordBypass() {
+        bypassed.incrementAndGet();
+    }
+    
+    @Scheduled(cron = "${llm.cache.purge.cron:0 45 1 * * *}")
+    public void purgeExpired() {
+        int removed = cacheRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        log.info("Purged {} expired LLM cache entries", removed);
+    }
+    
+    public LlmCacheStats getStats() {
+        long persistent = persistentHits.get();
+        return LlmCacheStats.builder()
+                .cache(CacheStats.builder()
+                        .memoryHits(memoryTier.getHits())
+                        .persistentHits(persistent)
+                        .misses(memoryTier.getMisses() - persistent)
+                        .evictions(memoryTier.getEvictions())
+                        .expirations(memoryTier.getExpirations())
+                        .persistentErrors(persistentErrors.get())
+                        .memorySize(memoryTier.size())
+                        .build())
+                .bypassed(bypassed.get())
+                .tokensSaved(tokensSaved.get())
+                .latencySavedMs(latencySavedMs.get())
+                .build();
+    }
+    
+    private Optional<CompletionResult> loadPersistent(String key) {
+        try {
+            Optional<LlmResponseCacheEntry> entry = cacheRepository.findById(key)
+                    .filter(e -> e.getCreatedDate().isAfter(LocalDateTime.now().minus(ttl)));
+            
+            if (entry.isPresent()) {
+                LlmResponseCacheEntry e = entry.get();
+                CompletionResult result = CompletionResult.builder()
+                        .content(e.getContent())
+                        .finishReason(e.getFinishReason())
+                        .usage(new Usage(e.getInputTokens(), e.getOutputTokens(), null))
+                        .latencyMs(e.getLatencyMs() != null ? e.getLatencyMs() : 0L)
+                        .build();
+                memoryTier.put(key, result, e.getCreatedDate().atZone(ZoneId.systemDefault()).toInstant());
+                persistentHits.incrementAndGet();
+                return Optional.of(result);
+            }
+        } catch (Exception e) {
+            persistentErrors.incrementAndGet();
+            log.warn("LLM cache lookup failed for {}", key, e);
+        }
+        return Optional.empty();
+    }
+    
+    private void recordSavings(CompletionResult result) {
+        Usage usage = result.getUsage();
+        if (usage != null) {
+            tokensSaved.addAndGet((usage.getInputTokens() != null ? usage.getInputTokens() : 0)
+                    + (usage.getOutputTokens() != null ? usage.getOutputTokens() : 0));
+        }
+        latencySavedMs.addAndGet(result.getLatencyMs());
+    }
+}
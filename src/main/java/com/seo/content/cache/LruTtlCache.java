@@ -0,0 +1,107 @@
+package com.seo.content.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe in-memory cache with least-recently-used eviction
+ * and a fixed time-to-live per entry.
+ */
+public class LruTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final LinkedHashMap<K, CachedValue<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public LruTtlCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized Optional<V> get(K key) {
+        CachedValue<V> cached = entries.get(key);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        if (cached.isExpired(Instant.now())) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(cached.value());
+    }
+
+    public void put(K key, V value) {
+        put(key, value, Instant.now());
+    }
+
+    /**
+     * Stores a value that was originally produced at {@code createdAt},
+     * so entries promoted from a slower tier keep their remaining lifetime
+     */
+    public synchronized void put(K key, V value, Instant createdAt) {
+        Instant expiresAt = createdAt.plus(ttl);
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        entries.put(key, new CachedValue<>(value, expiresAt));
+        evictOverflow();
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, CachedValue<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private record CachedValue<V>(V value, Instant expiresAt) {
+        boolean isExpired(Instant now) {
+            return !expiresAt.isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.seo.content.cache;
+
+import com.seo.content.model.SuggestionCacheEntry;
+import com.seo.content.repository.SuggestionCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache for Google Suggest results: a bounded LRU/TTL map in memory,
+ * backed by the suggestion_cache table so results survive restarts.
+ */
+@Component
+@Slf4j
+public class SuggestionCache {
+    
+    private final SuggestionCacheRepository cacheRepository;
+    private final LruTtlCache<String, List<String>> memoryTier;
+    private final Duration ttl;
+    
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong persistentErrors = new AtomicLong();
+    
+    public SuggestionCache(
+            SuggestionCacheRepository cacheRepository,
+            @Value("${suggest.cache.max-entries:5000}") int maxEntries,
+            @Value("${suggest.cache.ttl-hours:72}") long ttlHours) {
+        this.cacheRepository = cacheRepository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.memoryTier = new LruTtlCache<>(maxEntries, ttl);
+    }
+    
+    /**
+     * Looks up suggestions in memory first, then in the persistent tier
+     */
+    public Optional<List<String>> get(String query) {
+        String key = normalize(query);
+        
+        Optional<List<String>> cached = memoryTier.get(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        
+        try {
+            Optional<SuggestionCacheEntry> entry = cacheRepository.findById(key)
+                    .filter(e -> e.getFetchedDate().isAfter(LocalDateTime.now().minus(ttl)));
+            
+            if (entry.isPresent()) {
+                List<String> suggestions = decode(entry.get().getSuggestions());
+                memoryTier.put(key, suggestions,
+                        entry.get().getFetchedDate().atZone(ZoneId.systemDefault()).toInstant());
+                persistentHits.incrementAndGet();
+                return Optional.of(suggestions);
+            }
+        } catch (Exception e) {
+            persistentErrors.incrementAndGet();
+            log.warn("Suggestion cache lookup failed for: {}", query, e);
+        }
+        
+        return Optional.empty();
+    }
+    
+    /**
+     * Stores freshly fetched suggestions in both tiers
+     */
+    public void put(String query, List<String> suggestions) {
+        String key = normalize(query);
+        List<String> value = List.copyOf(suggestions);
+        memoryTier.put(key, value);
+        
+        try {
+            cacheRepository.save(SuggestionCacheEntry.builder()
+                    .queryText(key)
+                    .suggestions(String.join("\n", value))
+                    .fetchedDate(LocalDateTime.now())
+                    .build());
+        } catch (Exception e) {
+            persistentErrors.incrementAndGet();
+            log.warn("Failed to persist suggestion cache entry for: {}", query, e);
+        }
+    }
+    
+    /**
+     * Removes expired rows from the persistent tier - runs nightly before the daily workflow
+     */
+    @Scheduled(cron = "${suggest.cache.purge.cron:0 30 1 * * *}")
+    public void purgeExpired() {
+        int removed = cacheRepository.deleteFetchedBefore(LocalDateTime.now().minus(ttl));
+        log.info("Purged {} expired suggestion cache entries", removed);
+    }
+    
+    public CacheStats getStats() {
+        long memoryHits = memoryTier.getHits();
+        long persistent = persistentHits.get();
+        return CacheStats.builder()
+                .memoryHits(memoryHits)
+                .persistentHits(persistent)
+                .misses(memoryTier.getMisses() - persistent)
+                .evictions(memoryTier.getEvictions())
+                .expirations(memoryTier.getExpirations())
+                .persistentErrors(persistentErrors.get())
+                .memorySize(memoryTier.size())
+                .build();
+    }
+    
+    private String normalize(String query) {
+        return query.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private List<String> decode(String stored) {
+        if (stored == null || stored.isEmpty()) {
+            return List.of();
+        }
+        return List.of(stored.split("\n"));
+    }
+}
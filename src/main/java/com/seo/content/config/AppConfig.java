@@ -7,17 +7,25 @@ import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import io.netty.resolver.DefaultAddressResolverGroup;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -30,9 +38,62 @@ public class AppConfig {
         return new RestTemplate();
     }
     
+    /**
+     * Worker pool for concurrent Google Suggest requests.
+     * Throughput is governed by the shared rate governor, not by the pool size.
+     */
+    @Bean(name = "suggestExecutor", destroyMethod = "shutdown")
+    public ExecutorService suggestExecutor(@Value("${suggest.concurrency:8}") int concurrency) {
+        return Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("suggest-"));
+    }
+    
+    /**
+     * Bounded pool for running scheduled niche workflows side by side.
+     * Each workflow holds a database connection, so keep this below the Hikari pool size.
+     */
+    @Bean(name = "nicheExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService nicheExecutor(@Value("${scheduler.niche.parallelism:4}") int parallelism) {
+        return Executors.newFixedThreadPool(Math.max(1, parallelism), new CustomizableThreadFactory("niche-"));
+    }
+    
+    /**
+     * Runs workflow jobs submitted through the REST API off the servlet threads.
+     * The queue is bounded so a burst of submissions is rejected rather than piling up.
+     */
+    @Bean(name = "workflowJobExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService workflowJobExecutor(
+            @Value("${workflow.jobs.concurrency:4}") int concurrency,
+            @Value("${workflow.jobs.queue-capacity:100}") int queueCapacity) {
+        return new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("workflow-job-"));
+    }
+    
+    /**
+     * WebClient for LLM calls. Uses a dedicated, bounded connection pool and
+     * negotiates HTTP/2 over TLS (ALPN) where the endpoint supports it, falling
+     * back to HTTP/1.1 otherwise.
+     */
     @Bean
-    public WebClient webClient() {
-        HttpClient httpClient = HttpClient.create()
+    public WebClient webClient(
+            @Value("${llm.http.max-connections:50}") int maxConnections,
+            @Value("${llm.http.pending-acquire-max:500}") int pendingAcquireMax,
+            @Value("${llm.http.max-idle-seconds:30}") long maxIdleSeconds,
+            @Value("${llm.http2.enabled:true}") boolean http2Enabled) {
+        
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("llm-pool")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofSeconds(60))
+                .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+                .evictInBackground(Duration.ofSeconds(maxIdleSeconds))
+                .build();
+        
+        HttpProtocol[] protocols = http2Enabled
+                ? new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[] {HttpProtocol.HTTP11};
+        
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(protocols)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 30000)
                 .responseTimeout(Duration.ofSeconds(60))
                 .resolver(DefaultAddressResolverGroup.INSTANCE)  // FIX: Use system DNS instead of Netty DNS
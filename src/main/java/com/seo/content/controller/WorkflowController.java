@@ -1,23 +1,44 @@
 package com.seo.content.controller;
 
-import com.seo.content.dto.KeywordExplorationResponse;
+import com.seo.content.dto.ArticleDetail;
+import com.seo.content.dto.CursorPage;
+import com.seo.content.dto.KeywordTreeEntry;
+import com.seo.content.dto.NicheStats;
+import com.seo.content.dto.WorkflowJobStatus;
+import com.seo.content.index.KeywordTreeIndex;
+import com.seo.content.index.KeywordTreeNode;
 import com.seo.content.model.Article;
+import com.seo.content.model.ArticleGenerationStatus;
 import com.seo.content.model.ExplorationLog;
 import com.seo.content.model.KeywordStatus;
-import com.seo.content.model.PotentialKeyword;
-import com.seo.content.repository.ArticleRepository;
+import com.seo.content.model.WorkflowRun;
 import com.seo.content.repository.ExplorationLogRepository;
+import com.seo.content.repository.KeywordVariantRepository;
 import com.seo.content.repository.NicheRepository;
 import com.seo.content.repository.PotentialKeywordRepository;
+import com.seo.content.service.ContentListingService;
 import com.seo.content.service.ContentOrchestrationService;
+import com.seo.content.service.ContentSimilarityService;
+import com.seo.content.service.KeywordDiscoveryService;
+import com.seo.content.service.KeywordQualificationPipeline;
+import com.seo.content.service.KeywordTreeQueryService;
+import com.seo.content.service.LLMService;
+import com.seo.content.service.NicheCounterService;
+import com.seo.content.service.NicheStatsService;
+import com.seo.content.service.WorkflowJobService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/workflow")
@@ -25,63 +46,119 @@ import java.util.Map;
 public class WorkflowController {
     
     private final ContentOrchestrationService orchestrationService;
+    private final WorkflowJobService workflowJobService;
+    private final KeywordDiscoveryService keywordDiscoveryService;
+    private final KeywordQualificationPipeline qualificationPipeline;
+    private final ContentSimilarityService contentSimilarityService;
+    private final ContentListingService contentListingService;
+    private final KeywordTreeQueryService keywordTreeQueryService;
+    private final NicheStatsService nicheStatsService;
+    private final NicheCounterService nicheCounterService;
+    private final KeywordTreeIndex keywordTreeIndex;
+    private final LLMService llmService;
     private final NicheRepository nicheRepository;
     private final PotentialKeywordRepository keywordRepository;
-    private final ArticleRepository articleRepository;
+    private final KeywordVariantRepository keywordVariantRepository;
     private final ExplorationLogRepository explorationLogRepository;
     
     /**
-     * Manually trigger daily workflow for a niche
+     * Queue the daily workflow for a niche; poll the returned job or subscribe to its events
      */
     @PostMapping("/execute/{nicheId}")
     public ResponseEntity<Map<String, Object>> executeDailyWorkflow(@PathVariable Long nicheId) {
-        try {
-            orchestrationService.executeDailyWorkflow(nicheId);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Daily workflow executed successfully");
-            response.put("nicheId", nicheId);
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", "Workflow execution failed: " + e.getMessage());
-            response.put("nicheId", nicheId);
-            
-            return ResponseEntity.status(500).body(response);
+        if (!nicheRepository.existsById(nicheId)) {
+            return ResponseEntity.notFound().build();
         }
+        return acceptJob(() -> workflowJobService.submitDailyWorkflow(nicheId), nicheId);
     }
     
     /**
-     * Manually explore keywords without generating articles
+     * Get a workflow run with its last checkpoint
+     */
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<WorkflowRun> getWorkflowRun(@PathVariable Long runId) {
+        return orchestrationService.getWorkflowRun(runId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Get the most recent workflow runs for a niche
+     */
+    @GetMapping("/runs/niche/{nicheId}")
+    public ResponseEntity<List<WorkflowRun>> getWorkflowRuns(@PathVariable Long nicheId) {
+        return ResponseEntity.ok(orchestrationService.getRecentWorkflowRuns(nicheId));
+    }
+    
+    /**
+     * Queue a resume of a failed workflow run from its last completed stage
+     */
+    @PostMapping("/runs/{runId}/resume")
+    public ResponseEntity<Map<String, Object>> resumeWorkflowRun(@PathVariable Long runId) {
+        return orchestrationService.getWorkflowRun(runId)
+                .map(run -> acceptJob(() -> workflowJobService.submitResume(runId, run.getNicheId()), run.getNicheId()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Queue a keyword exploration without article generation
      */
     @PostMapping("/explore-keywords/{nicheId}")
-    public ResponseEntity<KeywordExplorationResponse> exploreKeywords(
+    public ResponseEntity<Map<String, Object>> exploreKeywords(
             @PathVariable Long nicheId,
             @RequestBody ExploreKeywordsRequest request) {
         
+        if (!nicheRepository.existsById(nicheId)) {
+            return ResponseEntity.notFound().build();
+        }
+        int depth = request.getDepth() != null ? request.getDepth() : 1;
+        return acceptJob(() -> workflowJobService.submitKeywordExploration(
+                nicheId, request.getSeedKeywords(), depth), nicheId);
+    }
+    
+    /**
+     * Get the current status and counters of a workflow job
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<WorkflowJobStatus> getJobStatus(@PathVariable String jobId) {
+        return workflowJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Stream a workflow job's stage transitions and counters as server-sent events
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable String jobId) {
+        return workflowJobService.subscribe(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private ResponseEntity<Map<String, Object>> acceptJob(Supplier<WorkflowJobStatus> submission, Long nicheId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("nicheId", nicheId);
+        
         try {
-            KeywordExplorationResponse result = orchestrationService.exploreKeywordsOnly(
-                    nicheId, 
-                    request.getSeedKeywords(), 
-                    request.getDepth()
-            );
+            WorkflowJobStatus job = submission.get();
             
-            return ResponseEntity.ok(result);
+            response.put("success", true);
+            response.put("message", "Workflow job queued");
+            response.put("jobId", job.getJobId());
+            response.put("state", job.getState());
+            response.put("statusUrl", "/api/workflow/jobs/" + job.getJobId());
+            response.put("eventsUrl", "/api/workflow/jobs/" + job.getJobId() + "/events");
+            
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/workflow/jobs/" + job.getJobId()))
+                    .body(response);
             
         } catch (Exception e) {
-            KeywordExplorationResponse response = KeywordExplorationResponse.builder()
-                    .success(false)
-                    .message("Keyword exploration failed: " + e.getMessage())
-                    .keywordsDiscovered(0)
-                    .keywordsQualified(0)
-                    .keywordsSaved(0)
-                    .build();
+            response.put("success", false);
+            response.put("message", "Could not queue workflow job: " + e.getMessage());
             
-            return ResponseEntity.status(500).body(response);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
         }
     }
     
@@ -100,35 +177,29 @@ public class WorkflowController {
     }
     
     /**
-     * Get workflow statistics for a niche
+     * Get workflow statistics for a niche; detailed=true adds score percentiles from the base tables
      */
     @GetMapping("/stats/{nicheId}")
-    public ResponseEntity<Map<String, Object>> getWorkflowStats(@PathVariable Long nicheId) {
+    public ResponseEntity<Map<String, Object>> getWorkflowStats(
+            @PathVariable Long nicheId,
+            @RequestParam(defaultValue = "false") boolean detailed) {
         return nicheRepository.findById(nicheId)
                 .map(niche -> {
                     Map<String, Object> stats = new HashMap<>();
                     
-                    List<PotentialKeyword> allKeywords = keywordRepository.findByNiche(niche);
-                    Long unwrittenCount = keywordRepository.countByNicheAndStatus(niche, KeywordStatus.UNWRITTEN);
-                    Long writtenCount = keywordRepository.countByNicheAndStatus(niche, KeywordStatus.WRITTEN);
-                    Long rejectedCount = keywordRepository.countByNicheAndStatus(niche, KeywordStatus.REJECTED);
-                    Integer maxDepth = keywordRepository.findMaxDepthLevelByNiche(niche);
-                    Long articleCount = articleRepository.countByNiche(niche);
-                    
-                    stats.put("totalKeywords", allKeywords.size());
-                    stats.put("unwrittenKeywords", unwrittenCount);
-                    stats.put("writtenKeywords", writtenCount);
-                    stats.put("rejectedKeywords", rejectedCount);
-                    stats.put("maxDepthLevel", maxDepth != null ? maxDepth : 0);
-                    stats.put("totalArticles", articleCount);
-                    
-                    // Average qualification score
-                    double avgScore = allKeywords.stream()
-                            .filter(kw -> kw.getQualificationScore() != null)
-                            .mapToDouble(PotentialKeyword::getQualificationScore)
-                            .average()
-                            .orElse(0.0);
-                    stats.put("averageQualificationScore", avgScore);
+                    NicheStats nicheStats = detailed
+                            ? nicheStatsService.getDetailedStats(nicheId)
+                            : nicheStatsService.getStats(nicheId);
+                    stats.put("totalKeywords", nicheStats.getTotalKeywords());
+                    stats.put("unwrittenKeywords", nicheStats.getKeywordsByStatus().get(KeywordStatus.UNWRITTEN));
+                    stats.put("writtenKeywords", nicheStats.getKeywordsByStatus().get(KeywordStatus.WRITTEN));
+                    stats.put("rejectedKeywords", nicheStats.getKeywordsByStatus().get(KeywordStatus.REJECTED));
+                    stats.put("keywordsByDepth", nicheStats.getKeywordsByDepth());
+                    stats.put("maxDepthLevel", nicheStats.getMaxDepthLevel());
+                    stats.put("totalArticles", nicheStats.getTotalArticles());
+                    stats.put("averageQualificationScore", nicheStats.getAverageQualificationScore());
+                    stats.put("medianQualificationScore", nicheStats.getMedianQualificationScore());
+                    stats.put("p90QualificationScore", nicheStats.getP90QualificationScore());
                     
                     // Recent logs
                     List<ExplorationLog> recentLogs = explorationLogRepository.findRecentByNiche(niche, 5);
@@ -140,54 +211,177 @@ public class WorkflowController {
     }
     
     /**
-     * Get unwritten qualified keywords
+     * Recompute a niche's maintained counters from the base tables
+     */
+    @PostMapping("/stats/{nicheId}/rebuild")
+    public ResponseEntity<NicheStats> rebuildWorkflowStats(@PathVariable Long nicheId) {
+        if (!nicheRepository.existsById(nicheId)) {
+            return ResponseEntity.notFound().build();
+        }
+        nicheCounterService.rebuild(nicheId);
+        return ResponseEntity.ok(nicheStatsService.getStats(nicheId));
+    }
+    
+    /**
+     * Get keyword discovery cache, filter, qualification batching, LLM cache and rate limit statistics
+     */
+    @GetMapping("/discovery-stats")
+    public ResponseEntity<Map<String, Object>> getDiscoveryStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("suggestionCache", keywordDiscoveryService.getSuggestionCacheStats());
+        stats.put("knownKeywordFilter", keywordDiscoveryService.getKnownKeywordFilterStats());
+        stats.put("qualificationBatching", qualificationPipeline.getBatchSizingStats());
+        stats.put("llmResponseCache", llmService.getResponseCacheStats());
+        stats.put("rateLimits", keywordDiscoveryService.getRateLimitStats());
+        stats.put("similarityIndex", contentSimilarityService.getStats());
+        stats.put("keywordTree", keywordTreeIndex.getStats());
+        return ResponseEntity.ok(stats);
+    }
+    
+    /**
+     * Get unwritten qualified keywords, best score first
      */
     @GetMapping("/unwritten-keywords/{nicheId}")
-    public ResponseEntity<List<PotentialKeyword>> getUnwrittenKeywords(@PathVariable Long nicheId) {
-        return nicheRepository.findById(nicheId)
-                .map(niche -> {
-                    List<PotentialKeyword> keywords = keywordRepository.findUnwrittenQualifiedKeywords(niche);
-                    return ResponseEntity.ok(keywords);
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<CursorPage<?>> getUnwrittenKeywords(
+            @PathVariable Long nicheId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        return listPage(nicheId, () -> contentListingService.listUnwrittenKeywords(nicheId, cursor, limit, fields));
     }
     
     /**
-     * Get all keywords for a niche with filtering
+     * Get keywords for a niche with filtering
      */
     @GetMapping("/keywords/{nicheId}")
-    public ResponseEntity<List<PotentialKeyword>> getKeywords(
+    public ResponseEntity<CursorPage<?>> getKeywords(
             @PathVariable Long nicheId,
             @RequestParam(required = false) KeywordStatus status,
-            @RequestParam(required = false) Integer depth) {
-        
-        return nicheRepository.findById(nicheId)
-                .map(niche -> {
-                    List<PotentialKeyword> keywords;
-                    
-                    if (status != null) {
-                        keywords = keywordRepository.findByNicheAndStatus(niche, status);
-                    } else if (depth != null) {
-                        keywords = keywordRepository.findByNicheAndDepthLevel(niche, depth);
-                    } else {
-                        keywords = keywordRepository.findByNiche(niche);
-                    }
-                    
-                    return ResponseEntity.ok(keywords);
-                })
+            @RequestParam(required = false) Integer depth,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        return listPage(nicheId, () -> contentListingService.listKeywords(nicheId, status, depth, cursor, limit, fields));
+    }
+    
+    /**
+     * Get a niche's keyword trees, or the subtree under rootId, depth-first from the database.
+     * maxDepth counts levels below the start; keywords under minScore are cut off with their subtree.
+     */
+    @GetMapping("/keywords/{nicheId}/tree")
+    public ResponseEntity<List<KeywordTreeEntry>> getKeywordSubtree(
+            @PathVariable Long nicheId,
+            @RequestParam(required = false) Long rootId,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(required = false) Integer limit) {
+        if (!nicheRepository.existsById(nicheId)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return keywordTreeQueryService.getTree(nicheId, rootId, maxDepth, minScore, limit)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get a keyword's ancestor chain, root first and ending with the keyword
+     */
+    @GetMapping("/keyword/{keywordId}/ancestors")
+    public ResponseEntity<List<KeywordTreeEntry>> getKeywordAncestors(@PathVariable Long keywordId) {
+        return keywordTreeQueryService.getAncestors(keywordId)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     /**
-     * Get all articles for a niche
+     * Get the near-duplicate suggestions recorded against a keyword
+     */
+    @GetMapping("/keyword/{keywordId}/variants")
+    public ResponseEntity<List<String>> getKeywordVariants(@PathVariable Long keywordId) {
+        if (!keywordRepository.existsById(keywordId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(keywordVariantRepository.findVariantTextsByKeywordId(keywordId));
+    }
+    
+    /**
+     * Get the in-memory tree index's copy of a niche's keyword tree (or the subtree under rootId) as a
+     * flat depth-first list, with child counts, subtree sizes and best subtree scores. The /index paths
+     * show what steers exploration; /keywords/{nicheId}/tree reads the committed database state.
+     */
+    @GetMapping("/index/keyword-tree/{nicheId}")
+    public ResponseEntity<List<KeywordTreeNode>> getIndexedKeywordTree(
+            @PathVariable Long nicheId,
+            @RequestParam(required = false) Long rootId,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (!nicheRepository.existsById(nicheId)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return keywordTreeIndex.subtree(nicheId, rootId, maxDepth, limit)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get the best scoring keywords of a niche that have not been explored further yet
+     */
+    @GetMapping("/index/keyword-tree/{nicheId}/frontier")
+    public ResponseEntity<List<KeywordTreeNode>> getIndexedKeywordFrontier(
+            @PathVariable Long nicheId,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (!nicheRepository.existsById(nicheId)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(keywordTreeIndex.frontier(nicheId, limit));
+    }
+    
+    /**
+     * Get the index's chain of keywords from the tree's root down to a keyword
+     */
+    @GetMapping("/index/keyword-tree/{nicheId}/path/{keywordId}")
+    public ResponseEntity<List<KeywordTreeNode>> getIndexedKeywordPath(
+            @PathVariable Long nicheId,
+            @PathVariable Long keywordId) {
+        if (!nicheRepository.existsById(nicheId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return keywordTreeIndex.path(nicheId, keywordId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Get articles for a niche, newest first and without their content; COMPLETE ones unless status is given
      */
     @GetMapping("/articles/{nicheId}")
-    public ResponseEntity<List<Article>> getArticles(@PathVariable Long nicheId) {
-        return nicheRepository.findById(nicheId)
-                .map(niche -> {
-                    List<Article> articles = articleRepository.findByNicheOrderByCreatedDateDesc(niche);
-                    return ResponseEntity.ok(articles);
-                })
+    public ResponseEntity<CursorPage<?>> getArticles(
+            @PathVariable Long nicheId,
+            @RequestParam(required = false) ArticleGenerationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        return listPage(nicheId, () -> contentListingService.listArticles(nicheId, status, cursor, limit, fields));
+    }
+    
+    /**
+     * Get a single article including its full content
+     */
+    @GetMapping("/article/{articleId}")
+    public ResponseEntity<ArticleDetail> getArticle(@PathVariable Long articleId) {
+        return contentListingService.getArticle(articleId)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -204,6 +398,17 @@ public class WorkflowController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    private ResponseEntity<CursorPage<?>> listPage(Long nicheId, Supplier<CursorPage<?>> listing) {
+        if (!nicheRepository.existsById(nicheId)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(listing.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @Data
     public static class ExploreKeywordsRequest {
         private List<String> seedKeywords;
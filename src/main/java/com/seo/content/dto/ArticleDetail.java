@@ -0,0 +1,27 @@
+package com.seo.content.dto;
+
+import com.seo.content.model.ArticleGenerationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleDetail {
+    private Long id;
+    private Long nicheId;
+    private Long keywordId;
+    private String keywordText;
+    private String title;
+    private String metaDescription;
+    private String content;
+    private Integer wordCount;
+    private ArticleGenerationStatus generationStatus;
+    private LocalDateTime createdDate;
+    private LocalDateTime publishedDate;
+}
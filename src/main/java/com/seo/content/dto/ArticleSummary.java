@@ -0,0 +1,28 @@
+package com.seo.content.dto;
+
+import com.seo.content.model.ArticleGenerationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Article listing row without the content; fetch an {@link ArticleDetail} for that
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleSummary {
+    private Long id;
+    private Long keywordId;
+    private String keywordText;
+    private String title;
+    private String metaDescription;
+    private Integer wordCount;
+    private ArticleGenerationStatus generationStatus;
+    private LocalDateTime createdDate;
+    private LocalDateTime publishedDate;
+}
@@ -0,0 +1,25 @@
+package com.seo.content.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSizingStats {
+    private int currentBatchSize;
+    private long batches;
+    private long truncatedBatches;
+    private long keywordsQualified;
+    private long totalTokens;
+    private double completionTokensPerKeyword;
+    private double promptTokensPerKeyword;
+    private double keywordsPerThousandTokens;
+    private double keywordsPerSecond;
+    private List<Integer> recentBatchSizes;
+}
@@ -0,0 +1,19 @@
+package com.seo.content.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A suggestion together with the seed and suggest query that produced it
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscoveredKeyword {
+    private String keywordText;
+    private String seedKeyword;
+    private String query;
+}
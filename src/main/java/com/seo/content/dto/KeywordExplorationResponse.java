@@ -15,4 +15,7 @@ public class KeywordExplorationResponse {
     private int keywordsDiscovered;
     private int keywordsQualified;
     private int keywordsSaved;
+    // Keywords that were already stored, left as they were or with their score raised
+    private int keywordsSkipped;
+    private int keywordsMerged;
 }
\ No newline at end of file
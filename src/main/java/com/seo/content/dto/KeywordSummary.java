@@ -0,0 +1,27 @@
+package com.seo.content.dto;
+
+import com.seo.content.model.KeywordStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyword listing row, selected straight from the table without loading the entity
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordSummary {
+    private Long id;
+    private String keywordText;
+    private Integer depthLevel;
+    private Long parentKeywordId;
+    private Double qualificationScore;
+    private KeywordStatus status;
+    private LocalDateTime discoveredDate;
+    private LocalDateTime writtenDate;
+}
@@ -0,0 +1,25 @@
+package com.seo.content.dto;
+
+import com.seo.content.model.KeywordStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One keyword of a subtree or ancestor chain read with a recursive query.
+ * distance counts the levels from the keyword the query started at.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordTreeEntry {
+    private Long id;
+    private Long parentKeywordId;
+    private String keywordText;
+    private Integer depthLevel;
+    private Double qualificationScore;
+    private KeywordStatus status;
+    private int distance;
+}
@@ -0,0 +1,39 @@
+package com.seo.content.dto;
+
+import com.seo.content.model.PotentialKeyword;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk keyword upsert. Merged rows are existing keywords whose score was
+ * raised; the score and promotion figures let the niche counters follow those changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordUpsertResult {
+    @Builder.Default
+    private List<PotentialKeyword> inserted = new ArrayList<>();
+    private int merged;
+    private int skipped;
+    // Merged keywords that had no score before
+    private int mergedNewlyScored;
+    private double mergedScoreDelta;
+    // Merged keywords moved from REJECTED to UNWRITTEN
+    private int promoted;
+    
+    public void add(KeywordUpsertResult other) {
+        inserted.addAll(other.inserted);
+        merged += other.merged;
+        skipped += other.skipped;
+        mergedNewlyScored += other.mergedNewlyScored;
+        mergedScoreDelta += other.mergedScoreDelta;
+        promoted += other.promoted;
+    }
+}
@@ -1,5 +1,7 @@
 package com.seo.content.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -77,6 +79,110 @@ public class LLMDto {
         private String nextSteps;
     }
     
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KeywordQualificationBatch {
+        private List<KeywordQualification> qualifications;
+        private Usage usage;
+        private String finishReason;
+        private boolean parseFailed;
+        
+        public boolean isTruncated() {
+            return "length".equals(finishReason);
+        }
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CompletionResult {
+        private String content;
+        private String finishReason;
+        private Usage usage;
+        private long latencyMs;
+    }
+    
+    // OpenAI-compatible chat completions request/response structures
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChatCompletionRequest {
+        private String model;
+        @JsonProperty("max_tokens")
+        private Integer maxTokens;
+        private Double temperature;
+        private List<Message> messages;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Boolean stream;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChatCompletionResponse {
+        private String id;
+        private String model;
+        private List<Choice> choices;
+        private Usage usage;
+        
+        public String getMessageContent() {
+            if (choices != null && !choices.isEmpty() && choices.get(0).getMessage() != null) {
+                return choices.get(0).getMessage().getContent();
+            }
+            return null;
+        }
+        
+        public String getFinishReason() {
+            if (choices != null && !choices.isEmpty()) {
+                return choices.get(0).getFinishReason();
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * One server-sent event of a streamed chat completion
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChatCompletionChunk {
+        private String id;
+        private List<Choice> choices;
+        private Usage usage;
+        
+        public String getDeltaContent() {
+            if (choices != null && !choices.isEmpty() && choices.get(0).getDelta() != null) {
+                return choices.get(0).getDelta().getContent();
+            }
+            return null;
+        }
+        
+        public String getFinishReason() {
+            if (choices != null && !choices.isEmpty()) {
+                return choices.get(0).getFinishReason();
+            }
+            return null;
+        }
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Choice {
+        private Integer index;
+        private Message message;
+        // Set instead of message on streamed chunks
+        private Message delta;
+        @JsonProperty("finish_reason")
+        private String finishReason;
+    }
+    
     // Anthropic/OpenAI API request/response structures
     
     @Data
@@ -134,9 +240,14 @@ public class LLMDto {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Usage {
+        // OpenAI-compatible APIs report prompt_tokens/completion_tokens
         @JsonProperty("input_tokens")
+        @JsonAlias("prompt_tokens")
         private Integer inputTokens;
         @JsonProperty("output_tokens")
+        @JsonAlias("completion_tokens")
         private Integer outputTokens;
+        @JsonProperty("total_tokens")
+        private Integer totalTokens;
     }
 }
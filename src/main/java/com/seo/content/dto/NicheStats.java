@@ -0,0 +1,25 @@
+package com.seo.content.dto;
+
+import com.seo.content.model.KeywordStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NicheStats {
+    private Long nicheId;
+    private long totalKeywords;
+    private Map<KeywordStatus, Long> keywordsByStatus;
+    private Map<Integer, Long> keywordsByDepth;
+    private int maxDepthLevel;
+    private double averageQualificationScore;
+    private Double medianQualificationScore;
+    private Double p90QualificationScore;
+    private long totalArticles;
+}
@@ -0,0 +1,21 @@
+package com.seo.content.dto;
+
+import com.seo.content.dto.LLMDto.KeywordQualification;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QualificationBatchResult {
+    private int batchIndex;
+    private List<String> suggestions;
+    private List<KeywordQualification> qualifications;
+    private boolean failed;
+    private long latencyMs;
+}
@@ -0,0 +1,17 @@
+package com.seo.content.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QualificationRunStats {
+    private int suggestions;
+    private int batches;
+    private int failedBatches;
+    private long durationMs;
+}
@@ -0,0 +1,58 @@
+package com.seo.content.dto;
+
+import com.seo.content.dto.LLMDto.ExplorationStrategyResponse;
+import com.seo.content.model.ArticleGenerationStatus;
+import com.seo.content.model.WorkflowStage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State handed from one daily workflow stage to the next.
+ * Holds ids and plain values only, never managed entities, so no stage
+ * depends on a persistence context opened by an earlier one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowContext {
+    private Long nicheId;
+    private WorkflowStage stage;
+    private long startTimeMillis;
+    
+    private ExplorationStrategyResponse strategy;
+    private List<String> seedKeywords;
+    private int targetDepth;
+    
+    @Builder.Default
+    private List<String> newSuggestions = new ArrayList<>();
+    // Near-duplicate suggestions folded into each representative in newSuggestions, keyed by its trimmed lowercase text
+    @Builder.Default
+    private Map<String, List<String>> keywordVariants = new HashMap<>();
+    // Seed each suggestion in newSuggestions was discovered from, used to link it to its parent
+    @Builder.Default
+    private Map<String, String> suggestionSeeds = new HashMap<>();
+    private int keywordsDiscovered;
+    private int suggestionsProcessed;
+    private int keywordsQualified;
+    private int keywordsSaved;
+    private int keywordsSkipped;
+    private int keywordsMerged;
+    
+    private Long selectedKeywordId;
+    private String selectedKeywordText;
+    private boolean tooSimilar;
+    
+    private Long articleId;
+    private String articleTitle;
+    private ArticleGenerationStatus articleStatus;
+    private int articleCharacters;
+    private int articlesGenerated;
+}
@@ -0,0 +1,54 @@
+package com.seo.content.dto;
+
+import com.seo.content.model.WorkflowStage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowJobStatus {
+    private String jobId;
+    private JobType type;
+    private JobState state;
+    private Long nicheId;
+    private Long runId;
+    private WorkflowStage stage;
+    
+    private int keywordsDiscovered;
+    private int suggestionsProcessed;
+    private int keywordsQualified;
+    private int keywordsSaved;
+    private int keywordsSkipped;
+    private int keywordsMerged;
+    private int articlesGenerated;
+    private String articleTitle;
+    private int articleCharacters;
+    
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    
+    public boolean isFinished() {
+        return state == JobState.SUCCEEDED || state == JobState.FAILED;
+    }
+    
+    public enum JobType {
+        DAILY_WORKFLOW,
+        RESUME_WORKFLOW,
+        KEYWORD_EXPLORATION
+    }
+    
+    public enum JobState {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
@@ -0,0 +1,17 @@
+package com.seo.content.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleMatch {
+    private Long articleId;
+    private String title;
+    private String keywordText;
+    private double score;
+}
@@ -0,0 +1,161 @@
+package com.seo.content.index;
+
+import com.seo.content.repository.ArticleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory TF-IDF index of the articles in each niche. Every article is indexed by its
+ * keyword and its title; a new keyword is scored against both and the better cosine wins.
+ * A niche is loaded from the database on first use and kept current as articles are saved.
+ */
+@Component
+@Slf4j
+public class ArticleSimilarityIndex {
+
+    private final ArticleRepository articleRepository;
+    private final Map<Long, NicheIndex> niches = new ConcurrentHashMap<>();
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+
+    public ArticleSimilarityIndex(ArticleRepository articleRepository) {
+        this.articleRepository = articleRepository;
+    }
+
+    /**
+     * Returns up to {@code limit} articles of the niche ordered by similarity to the text, best first
+     */
+    public List<ArticleMatch> nearest(Long nicheId, String text, int limit) {
+        NicheIndex index = load(nicheId);
+        long start = System.nanoTime();
+        List<ArticleMatch> matches = index.nearest(TermVector.of(text), limit);
+        queries.incrementAndGet();
+        queryNanos.addAndGet(System.nanoTime() - start);
+        return matches;
+    }
+
+    /**
+     * Adds or replaces an article. Niches that have not been loaded yet pick it up from the database.
+     */
+    public void add(Long nicheId, Long articleId, String title, String keywordText) {
+        NicheIndex index = niches.get(nicheId);
+        if (index != null) {
+            index.put(articleId, title, keywordText);
+        }
+    }
+
+    public SimilarityIndexStats getStats() {
+        long queryCount = queries.get();
+        return SimilarityIndexStats.builder()
+                .nichesLoaded(niches.size())
+                .articlesIndexed(niches.values().stream().mapToLong(NicheIndex::size).sum())
+                .queries(queryCount)
+                .averageQueryMicros(queryCount == 0 ? 0 : queryNanos.get() / 1000.0 / queryCount)
+                .build();
+    }
+
+    private NicheIndex load(Long nicheId) {
+        NicheIndex index = niches.computeIfAbsent(nicheId, id -> new NicheIndex());
+        // Loading holds the niche's lock, so an add racing the load waits and then replaces its row
+        synchronized (index) {
+            if (!index.loaded) {
+                long start = System.currentTimeMillis();
+                for (Object[] row : articleRepository.findSimilarityIndexRows(nicheId)) {
+                    index.put((Long) row[0], (String) row[1], (String) row[2]);
+                }
+                index.loaded = true;
+                log.info("Similarity index for niche {} loaded: {} articles in {} ms",
+                        nicheId, index.size(), System.currentTimeMillis() - start);
+            }
+        }
+        return index;
+    }
+
+    private static final class Entry {
+        private final Long articleId;
+        private final String title;
+        private final String keywordText;
+        private final TermVector keywordVector;
+        private final TermVector titleVector;
+        private final int[] features;
+
+        private Entry(Long articleId, String title, String keywordText) {
+            this.articleId = articleId;
+            this.title = title;
+            this.keywordText = keywordText;
+            this.keywordVector = TermVector.of(keywordText);
+            this.titleVector = TermVector.of(title);
+            this.features = TermVector.union(keywordVector, titleVector);
+        }
+    }
+
+    private static final class NicheIndex {
+        private final Map<Long, Entry> entries = new LinkedHashMap<>();
+        // Number of articles containing each feature, for the idf weights
+        private final Map<Integer, Integer> documentFrequency = new HashMap<>();
+        private boolean loaded;
+
+        private synchronized void put(Long articleId, String title, String keywordText) {
+            Entry previous = entries.remove(articleId);
+            if (previous != null) {
+                for (int feature : previous.features) {
+                    documentFrequency.computeIfPresent(feature, (f, count) -> count > 1 ? count - 1 : null);
+                }
+            }
+            Entry entry = new Entry(articleId, title, keywordText);
+            entries.put(articleId, entry);
+            for (int feature : entry.features) {
+                documentFrequency.merge(feature, 1, Integer::sum);
+            }
+        }
+
+        private synchronized long size() {
+            return entries.size();
+        }
+
+        private synchronized List<ArticleMatch> nearest(TermVector query, int limit) {
+            if (query.isEmpty() || entries.isEmpty()) {
+                return List.of();
+            }
+
+            int documents = entries.size();
+            TermVector.Idf idf = feature -> Math.log((1.0 + documents) / (1.0 + documentFrequency.getOrDefault(feature, 0))) + 1.0;
+            double queryNorm = Math.sqrt(query.weightedNormSquared(idf));
+
+            List<ArticleMatch> matches = new ArrayList<>(documents);
+            for (Entry entry : entries.values()) {
+                double score = Math.max(
+                        cosine(query, queryNorm, entry.keywordVector, idf),
+                        cosine(query, queryNorm, entry.titleVector, idf));
+                if (score > 0) {
+                    matches.add(ArticleMatch.builder()
+                            .articleId(entry.articleId)
+                            .title(entry.title)
+                            .keywordText(entry.keywordText)
+                            .score(score)
+                            .build());
+                }
+            }
+            matches.sort(Comparator.comparingDouble(ArticleMatch::getScore).reversed());
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        }
+
+        private static double cosine(TermVector query, double queryNorm, TermVector document, TermVector.Idf idf) {
+            if (document.isEmpty() || queryNorm == 0) {
+                return 0;
+            }
+            double documentNorm = Math.sqrt(document.weightedNormSquared(idf));
+            return documentNorm == 0 ? 0 : query.weightedDot(document, idf) / (queryNorm * documentNorm);
+        }
+    }
+}
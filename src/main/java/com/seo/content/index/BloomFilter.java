@@ -0,0 +1,125 @@
+package com.seo.content.index;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compact Bloom filter over strings, backed by a primitive long bit array.
+ * Safe for concurrent put and mightContain calls; never yields false negatives.
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long SECOND_SEED = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+    private final long expectedInsertions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long numBits, int numHashes, long expectedInsertions) {
+        long words = (numBits + 63) / 64;
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + numBits + " bits");
+        }
+        this.bits = new AtomicLongArray((int) words);
+        this.numBits = words * 64;
+        this.numHashes = numHashes;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Sizes a filter for the expected number of insertions at the target false-positive rate
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(Math.max(64, m), k, n);
+    }
+
+    public void put(String value) {
+        long h1 = hash(value, FNV_OFFSET);
+        long h2 = hash(value, FNV_OFFSET ^ SECOND_SEED);
+        for (int i = 0; i < numHashes; i++) {
+            setBit(Math.floorMod(h1 + i * h2, numBits));
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value, FNV_OFFSET);
+        long h2 = hash(value, FNV_OFFSET ^ SECOND_SEED);
+        for (int i = 0; i < numHashes; i++) {
+            if (!getBit(Math.floorMod(h1 + i * h2, numBits))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimated false-positive rate for the current number of insertions: (1 - e^(-kn/m))^k
+     */
+    public double expectedFalsePositiveRate() {
+        double exponent = -(double) numHashes * insertions.get() / numBits;
+        return Math.pow(1 - Math.exp(exponent), numHashes);
+    }
+
+    public long memoryBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    public long getInsertions() {
+        return insertions.get();
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean getBit(long index) {
+        return (bits.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    // MurmurHash3 64-bit finalizer, spreads FNV output across all bits
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,21 @@
+package com.seo.content.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilterStats {
+    private boolean ready;
+    private long insertions;
+    private long expectedInsertions;
+    private int numHashes;
+    private long memoryBytes;
+    private double expectedFalsePositiveRate;
+    private long lookups;
+    private long definitelyNew;
+}
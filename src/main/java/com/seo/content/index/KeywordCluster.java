@@ -0,0 +1,9 @@
+package com.seo.content.index;
+
+import java.util.List;
+
+/**
+ * A group of near-duplicate suggestions; only the representative is qualified
+ */
+public record KeywordCluster(String representative, List<String> variants) {
+}
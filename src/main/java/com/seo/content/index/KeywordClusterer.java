@@ -0,0 +1,234 @@
+package com.seo.content.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Groups near-duplicate suggestions such as "best X for beginners" and "X for beginners best".
+ * Each keyword is reduced to a sorted set of stemmed, non-stop-word tokens plus their character
+ * trigrams; MinHash signatures of those sets are bucketed with LSH so only likely pairs are compared.
+ * Directional prepositions stay bound to the word after them, so "flights from london to paris"
+ * and "flights from paris to london" remain different keywords.
+ */
+@Component
+@Slf4j
+public class KeywordClusterer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "of", "in", "on", "at", "and", "or", "is", "are", "your", "my");
+    // Swapping the words around these changes the meaning, so each is kept as one token with the next word
+    private static final Set<String> DIRECTIONAL = Set.of("for", "to", "from", "with", "by");
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int bands;
+    private final int rows;
+    private final long[] hashMultipliers;
+    private final long[] hashOffsets;
+
+    public KeywordClusterer(
+            @Value("${keywords.cluster.enabled:true}") boolean enabled,
+            @Value("${keywords.cluster.similarity-threshold:0.8}") double similarityThreshold,
+            @Value("${keywords.cluster.lsh-bands:16}") int bands,
+            @Value("${keywords.cluster.lsh-rows:4}") int rows) {
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.bands = bands;
+        this.rows = rows;
+
+        Random random = new Random(SEED);
+        this.hashMultipliers = new long[bands * rows];
+        this.hashOffsets = new long[bands * rows];
+        for (int i = 0; i < hashMultipliers.length; i++) {
+            hashMultipliers[i] = random.nextLong() | 1;
+            hashOffsets[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Clusters the keywords, keeping their order: each cluster is represented by its first member
+     */
+    public List<KeywordCluster> cluster(List<String> keywords) {
+        if (!enabled || keywords.size() < 2) {
+            return keywords.stream().map(keyword -> new KeywordCluster(keyword, List.of())).toList();
+        }
+
+        long start = System.nanoTime();
+        int n = keywords.size();
+        long[][] signatures = new long[n][];
+        for (int i = 0; i < n; i++) {
+            signatures[i] = signature(features(keywords.get(i)));
+        }
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+
+        int comparisons = 0;
+        for (int band = 0; band < bands; band++) {
+            Map<Integer, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                int key = Arrays.hashCode(Arrays.copyOfRange(signatures[i], band * rows, (band + 1) * rows));
+                buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                for (int a = 0; a < bucket.size(); a++) {
+                    for (int b = a + 1; b < bucket.size(); b++) {
+                        int first = bucket.get(a);
+                        int second = bucket.get(b);
+                        if (find(parent, first) == find(parent, second)) {
+                            continue;
+                        }
+                        comparisons++;
+                        if (estimatedSimilarity(signatures[first], signatures[second]) >= similarityThreshold) {
+                            union(parent, first, second);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Integer, List<String>> members = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            members.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(keywords.get(i));
+        }
+        List<KeywordCluster> clusters = members.values().stream()
+                .map(group -> new KeywordCluster(group.get(0), List.copyOf(group.subList(1, group.size()))))
+                .toList();
+
+        log.info("Clustered {} keywords into {} clusters ({} candidate pairs) in {} ms",
+                n, clusters.size(), comparisons, (System.nanoTime() - start) / 1_000_000);
+        return clusters;
+    }
+
+    /**
+     * Order-insensitive normal form: lowercased, stemmed tokens without stop words, sorted.
+     * A directional preposition is joined to the next token ("for>cat"), which keeps who
+     * does what to whom while the rest of the word order is ignored.
+     */
+    static String normalize(String keyword) {
+        Set<String> tokens = new TreeSet<>();
+        String preposition = null;
+        for (String token : keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            if (DIRECTIONAL.contains(token)) {
+                if (preposition != null) {
+                    tokens.add(preposition);
+                }
+                preposition = token;
+                continue;
+            }
+            tokens.add(preposition != null ? preposition + ">" + stem(token) : stem(token));
+            preposition = null;
+        }
+        if (preposition != null) {
+            tokens.add(preposition);
+        }
+        return tokens.isEmpty() ? keyword.toLowerCase(Locale.ROOT).trim() : String.join(" ", tokens);
+    }
+
+    /**
+     * Light suffix stripping, enough to fold plurals and -ing/-ed forms together
+     */
+    static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 4 && (token.endsWith("sses") || token.endsWith("shes")
+                || token.endsWith("ches") || token.endsWith("xes"))) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) {
+            return token.substring(0, token.length() - 1);
+        }
+        if (token.length() > 5 && token.endsWith("ing")) {
+            return token.substring(0, token.length() - 3);
+        }
+        if (token.length() > 4 && token.endsWith("ed")) {
+            return token.substring(0, token.length() - 2);
+        }
+        return token;
+    }
+
+    private Set<String> features(String keyword) {
+        Set<String> features = new HashSet<>();
+        for (String token : normalize(keyword).split(" ")) {
+            features.add(token);
+            String padded = "#" + token + "#";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                features.add("~" + padded.substring(i, i + 3));
+            }
+        }
+        return features;
+    }
+
+    private long[] signature(Set<String> features) {
+        long[] signature = new long[hashMultipliers.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String feature : features) {
+            long base = feature.hashCode();
+            for (int i = 0; i < signature.length; i++) {
+                long h = mix(base * hashMultipliers[i] + hashOffsets[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static double estimatedSimilarity(long[] a, long[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        // The earlier keyword stays the root so it becomes the representative
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootA] = rootB;
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.seo.content.index;
+
+import com.seo.content.model.KeywordStatus;
+import com.seo.content.model.PotentialKeyword;
+import com.seo.content.repository.PotentialKeywordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of each niche's keyword tree, held in parallel primitive arrays
+ * (id, parent, depth, score, status) with children stored as ranges of one flat array.
+ * A niche is loaded from the database on first use and then kept current by appending
+ * saved keywords; the child ranges and subtree aggregates are rebuilt lazily on the next query.
+ */
+@Component
+@Slf4j
+public class KeywordTreeIndex {
+
+    private static final KeywordStatus[] STATUSES = KeywordStatus.values();
+
+    private final PotentialKeywordRepository keywordRepository;
+    private final Map<Long, NicheTree> niches = new ConcurrentHashMap<>();
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+
+    public KeywordTreeIndex(PotentialKeywordRepository keywordRepository) {
+        this.keywordRepository = keywordRepository;
+    }
+
+    /**
+     * Best scoring keywords that have not been expanded yet (no children and not rejected), best first
+     */
+    public List<KeywordTreeNode> frontier(Long nicheId, int limit) {
+        NicheTree tree = load(nicheId);
+        long start = System.nanoTime();
+        List<KeywordTreeNode> frontier = tree.frontier(limit);
+        recordQuery(start);
+        return frontier;
+    }
+
+    /**
+     * The subtree under a keyword in depth-first order, or every root's subtree when rootId is null.
+     * maxDepth is relative to the starting keywords; the result stops after limit nodes.
+     * Validates its arguments like KeywordTreeQueryService.getTree.
+     */
+    public Optional<List<KeywordTreeNode>> subtree(Long nicheId, Long rootId, Integer maxDepth, int limit) {
+        if (maxDepth != null && maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        NicheTree tree = load(nicheId);
+        long start = System.nanoTime();
+        Optional<List<KeywordTreeNode>> subtree = tree.subtree(rootId, maxDepth, limit);
+        recordQuery(start);
+        return subtree;
+    }
+
+    /**
+     * The chain from the tree's root down to the keyword, both included
+     */
+    public Optional<List<KeywordTreeNode>> path(Long nicheId, Long keywordId) {
+        NicheTree tree = load(nicheId);
+        long start = System.nanoTime();
+        Optional<List<KeywordTreeNode>> path = tree.path(keywordId);
+        recordQuery(start);
+        return path;
+    }
+
+    /**
+     * Appends newly saved keywords. Niches that have not been loaded yet pick them up from the database.
+     */
+    public void addAll(Long nicheId, List<PotentialKeyword> keywords) {
+        NicheTree tree = niches.get(nicheId);
+        if (tree == null || keywords.isEmpty()) {
+            return;
+        }
+        synchronized (tree) {
+            for (PotentialKeyword keyword : keywords) {
+                tree.put(keyword.getId(),
+                        keyword.getParentKeyword() != null ? keyword.getParentKeyword().getId() : null,
+                        keyword.getKeywordText(),
+                        keyword.getDepthLevel(),
+                        keyword.getQualificationScore(),
+                        keyword.getStatus());
+            }
+        }
+    }
+
+    public void updateStatus(Long nicheId, Long keywordId, KeywordStatus status) {
+        NicheTree tree = niches.get(nicheId);
+        if (tree != null) {
+            tree.updateStatus(keywordId, status);
+        }
+    }
+
+    /**
+     * Drops a niche so it is reloaded on next use, for changes to rows the index cannot follow
+     */
+    public void invalidate(Long nicheId) {
+        niches.remove(nicheId);
+    }
+
+    public KeywordTreeStats getStats() {
+        long queryCount = queries.get();
+        return KeywordTreeStats.builder()
+                .nichesLoaded(niches.size())
+                .keywordsIndexed(niches.values().stream().mapToLong(NicheTree::size).sum())
+                .queries(queryCount)
+                .averageQueryMicros(queryCount == 0 ? 0 : queryNanos.get() / 1000.0 / queryCount)
+                .build();
+    }
+
+    private void recordQuery(long start) {
+        queries.incrementAndGet();
+        queryNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private NicheTree load(Long nicheId) {
+        NicheTree tree = niches.computeIfAbsent(nicheId, id -> new NicheTree());
+        // Loading holds the niche's lock, so an append racing the load waits and then overwrites its row
+        synchronized (tree) {
+            if (!tree.loaded) {
+                long start = System.currentTimeMillis();
+                for (Object[] row : keywordRepository.findKeywordTreeRows(nicheId, 0L)) {
+                    tree.put((Long) row[0], (Long) row[1], (String) row[2], (Integer) row[3],
+                            (Double) row[4], (KeywordStatus) row[5]);
+                }
+                tree.loaded = true;
+                log.info("Keyword tree for niche {} loaded: {} keywords in {} ms",
+                        nicheId, tree.size(), System.currentTimeMillis() - start);
+            }
+        }
+        return tree;
+    }
+
+    private static final class NicheTree {
+        private static final int NONE = -1;
+
+        private boolean loaded;
+        private int size;
+        private long[] ids = new long[64];
+        // Parent keyword id, 0 for none; resolved to positions when the structure is rebuilt
+        private long[] parentIds = new long[64];
+        private String[] texts = new String[64];
+        private int[] depths = new int[64];
+        // NaN when the keyword has no score
+        private float[] scores = new float[64];
+        private byte[] statuses = new byte[64];
+        private final Map<Long, Integer> positions = new HashMap<>();
+
+        // Derived from the columns above and rebuilt after any change
+        private boolean dirty = true;
+        private int[] parents;
+        private int[] childStart;
+        private int[] children;
+        private int[] roots;
+        private int[] subtreeSizes;
+        private float[] bestSubtreeScores;
+
+        private synchronized void put(Long id, Long parentId, String text, Integer depth,
+                                      Double score, KeywordStatus status) {
+            Integer position = positions.get(id);
+            if (position == null) {
+                ensureCapacity(size + 1);
+                position = size++;
+                positions.put(id, position);
+            }
+            ids[position] = id;
+            parentIds[position] = parentId != null ? parentId : 0L;
+            texts[position] = text;
+            depths[position] = depth != null ? depth : 0;
+            scores[position] = score != null ? score.floatValue() : Float.NaN;
+            statuses[position] = (byte) (status != null ? status : KeywordStatus.UNWRITTEN).ordinal();
+            dirty = true;
+        }
+
+        private synchronized void updateStatus(Long id, KeywordStatus status) {
+            Integer position = positions.get(id);
+            if (position != null) {
+                statuses[position] = (byte) status.ordinal();
+            }
+        }
+
+        private synchronized long size() {
+            return size;
+        }
+
+        private synchronized List<KeywordTreeNode> frontier(int limit) {
+            rebuildIfDirty();
+            if (limit <= 0) {
+                return List.of();
+            }
+            // Min-heap on score holding the best candidates seen so far
+            PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> scores[a] != scores[b]
+                    ? Float.compare(scores[a], scores[b]) : Long.compare(ids[b], ids[a]));
+            for (int i = 0; i < size; i++) {
+                if (childStart[i + 1] > childStart[i] || Float.isNaN(scores[i])
+                        || STATUSES[statuses[i]] == KeywordStatus.REJECTED) {
+                    continue;
+                }
+                best.add(i);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<KeywordTreeNode> nodes = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                nodes.add(node(best.poll()));
+            }
+            Collections.reverse(nodes);
+            return nodes;
+        }
+
+        private synchronized Optional<List<KeywordTreeNode>> subtree(Long rootId, Integer maxDepth, int limit) {
+            rebuildIfDirty();
+            int[] starts;
+            if (rootId == null) {
+                starts = roots;
+            } else {
+                Integer root = positions.get(rootId);
+                if (root == null) {
+                    return Optional.empty();
+                }
+                starts = new int[] {root};
+            }
+
+            List<KeywordTreeNode> nodes = new ArrayList<>();
+            int[] stack = new int[Math.max(16, size)];
+            int[] levels = new int[stack.length];
+            for (int startNode : starts) {
+                if (nodes.size() >= limit) {
+                    break;
+                }
+                int top = 0;
+                stack[top] = startNode;
+                levels[top++] = 0;
+                while (top > 0 && nodes.size() < limit) {
+                    int node = stack[--top];
+                    int level = levels[top];
+                    nodes.add(node(node));
+                    if (maxDepth != null && level >= maxDepth) {
+                        continue;
+                    }
+                    // Pushed in reverse so the children come out in id order
+                    for (int c = childStart[node + 1] - 1; c >= childStart[node]; c--) {
+                        stack[top] = children[c];
+                        levels[top++] = level + 1;
+                    }
+                }
+            }
+            return Optional.of(nodes);
+        }
+
+        private synchronized Optional<List<KeywordTreeNode>> path(Long keywordId) {
+            rebuildIfDirty();
+            Integer position = positions.get(keywordId);
+            if (position == null) {
+                return Optional.empty();
+            }
+            List<KeywordTreeNode> path = new ArrayList<>();
+            for (int node = position; node != NONE; node = parents[node]) {
+                path.add(node(node));
+            }
+            Collections.reverse(path);
+            return Optional.of(path);
+        }
+
+        private KeywordTreeNode node(int position) {
+            int parent = parents[position];
+            return KeywordTreeNode.builder()
+                    .id(ids[position])
+                    .parentId(parent != NONE ? ids[parent] : null)
+                    .keywordText(texts[position])
+                    .depthLevel(depths[position])
+                    .qualificationScore(Float.isNaN(scores[position]) ? null : (double) scores[position])
+                    .status(STATUSES[statuses[position]])
+                    .childCount(childStart[position + 1] - childStart[position])
+                    .subtreeSize(subtreeSizes[position])
+                    .bestSubtreeScore(Float.isNaN(bestSubtreeScores[position])
+                            ? null : (double) bestSubtreeScores[position])
+                    .build();
+        }
+
+        /**
+         * Resolves parent positions, lays the children out as contiguous ranges
+         * (counting sort on the parent) and folds subtree sizes and best scores up the tree
+         */
+        private void rebuildIfDirty() {
+            if (!dirty) {
+                return;
+            }
+            parents = new int[size];
+            int[] childCounts = new int[size + 1];
+            int rootCount = 0;
+            for (int i = 0; i < size; i++) {
+                // A parent is always stored before its child, so only lower ids are accepted; that rules
+                // out cycles. Parents outside the niche are treated as missing.
+                Integer parent = parentIds[i] != 0L && parentIds[i] < ids[i] ? positions.get(parentIds[i]) : null;
+                parents[i] = parent != null ? parent : NONE;
+                if (parents[i] == NONE) {
+                    rootCount++;
+                } else {
+                    childCounts[parents[i] + 1]++;
+                }
+            }
+
+            childStart = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                childStart[i + 1] = childStart[i] + childCounts[i + 1];
+            }
+            children = new int[size - rootCount];
+            roots = new int[rootCount];
+            int[] fill = Arrays.copyOf(childStart, size);
+            int rootFill = 0;
+            // Positions are in load and append order, i.e. id order, so the child ranges keep that order
+            for (int i = 0; i < size; i++) {
+                if (parents[i] == NONE) {
+                    roots[rootFill++] = i;
+                } else {
+                    children[fill[parents[i]]++] = i;
+                }
+            }
+
+            // Depth-first order from the roots; aggregating in reverse sees children before parents
+            int[] order = new int[size];
+            int ordered = 0;
+            int[] stack = new int[Math.max(1, size)];
+            for (int root : roots) {
+                int top = 0;
+                stack[top++] = root;
+                while (top > 0) {
+                    int node = stack[--top];
+                    order[ordered++] = node;
+                    for (int c = childStart[node]; c < childStart[node + 1]; c++) {
+                        stack[top++] = children[c];
+                    }
+                }
+            }
+
+            subtreeSizes = new int[size];
+            bestSubtreeScores = Arrays.copyOf(scores, size);
+            Arrays.fill(subtreeSizes, 1);
+            for (int k = ordered - 1; k >= 0; k--) {
+                int node = order[k];
+                int parent = parents[node];
+                if (parent != NONE) {
+                    subtreeSizes[parent] += subtreeSizes[node];
+                    if (!Float.isNaN(bestSubtreeScores[node])
+                            && (Float.isNaN(bestSubtreeScores[parent])
+                            || bestSubtreeScores[node] > bestSubtreeScores[parent])) {
+                        bestSubtreeScores[parent] = bestSubtreeScores[node];
+                    }
+                }
+            }
+            dirty = false;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            parentIds = Arrays.copyOf(parentIds, newCapacity);
+            texts = Arrays.copyOf(texts, newCapacity);
+            depths = Arrays.copyOf(depths, newCapacity);
+            scores = Arrays.copyOf(scores, newCapacity);
+            statuses = Arrays.copyOf(statuses, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.seo.content.index;
+
+import com.seo.content.model.KeywordStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordTreeNode {
+    private Long id;
+    private Long parentId;
+    private String keywordText;
+    private int depthLevel;
+    private Double qualificationScore;
+    private KeywordStatus status;
+    private int childCount;
+    // Including the keyword itself
+    private int subtreeSize;
+    // Best qualification score anywhere in the subtree
+    private Double bestSubtreeScore;
+}
@@ -0,0 +1,157 @@
+package com.seo.content.index;
+
+import com.seo.content.repository.KeywordVariantRepository;
+import com.seo.content.repository.PotentialKeywordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of every stored keyword and keyword variant text. A negative answer means the keyword
+ * is definitely new, so discovery only has to ask the database about possible matches.
+ * The filter is global because keyword_text is unique across all niches.
+ */
+@Component
+@Slf4j
+public class KnownKeywordFilter {
+    
+    private final PotentialKeywordRepository keywordRepository;
+    private final KeywordVariantRepository keywordVariantRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long minExpectedInsertions;
+    private final double falsePositiveRate;
+    
+    private volatile BloomFilter active;
+    private volatile BloomFilter building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong definitelyNew = new AtomicLong();
+    
+    public KnownKeywordFilter(
+            PotentialKeywordRepository keywordRepository,
+            KeywordVariantRepository keywordVariantRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${keywords.filter.expected-insertions:1000000}") long minExpectedInsertions,
+            @Value("${keywords.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.keywordRepository = keywordRepository;
+        this.keywordVariantRepository = keywordVariantRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildAsync();
+    }
+    
+    /**
+     * Returns false only if the keyword has definitely never been stored.
+     * Until the first build completes every keyword is reported as a possible match.
+     */
+    public boolean mightContain(String keywordText) {
+        BloomFilter filter = active;
+        if (filter == null) {
+            return true;
+        }
+        lookups.incrementAndGet();
+        if (filter.mightContain(keywordText)) {
+            return true;
+        }
+        definitelyNew.incrementAndGet();
+        return false;
+    }
+    
+    /**
+     * Records newly stored keyword texts
+     */
+    public void addAll(Collection<String> keywordTexts) {
+        // Read building before active so adds racing a rebuild land in the new filter
+        BloomFilter pending = building;
+        BloomFilter filter = active;
+        
+        for (String keywordText : keywordTexts) {
+            if (pending != null) {
+                pending.put(keywordText);
+            }
+            if (filter != null) {
+                filter.put(keywordText);
+            }
+        }
+        
+        if (filter != null && filter.getInsertions() > filter.getExpectedInsertions()) {
+            log.info("Keyword filter exceeded its capacity of {} - rebuilding", filter.getExpectedInsertions());
+            rebuildAsync();
+        }
+    }
+    
+    public void rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("Failed to build keyword filter", e);
+            } finally {
+                building = null;
+                rebuilding.set(false);
+            }
+        });
+    }
+    
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        long keywordCount = keywordRepository.count() + keywordVariantRepository.count();
+        BloomFilter fresh = BloomFilter.create(Math.max(minExpectedInsertions, keywordCount * 2), falsePositiveRate);
+        building = fresh;
+        
+        transactionTemplate.execute(status -> {
+            try (Stream<String> keywordTexts = keywordRepository.streamAllKeywordTexts()) {
+                keywordTexts.forEach(fresh::put);
+            }
+            try (Stream<String> variantTexts = keywordVariantRepository.streamAllVariantTexts()) {
+                variantTexts.forEach(fresh::put);
+            }
+            return null;
+        });
+        
+        active = fresh;
+        building = null;
+        
+        log.info("Keyword filter built: {} keywords, {} KB, {} hash functions, expected false-positive rate {} in {} ms",
+                fresh.getInsertions(),
+                fresh.memoryBytes() / 1024,
+                fresh.getNumHashes(),
+                String.format("%.5f", fresh.expectedFalsePositiveRate()),
+                System.currentTimeMillis() - start);
+    }
+    
+    public FilterStats getStats() {
+        BloomFilter filter = active;
+        if (filter == null) {
+            return FilterStats.builder().ready(false).build();
+        }
+        return FilterStats.builder()
+                .ready(true)
+                .insertions(filter.getInsertions())
+                .expectedInsertions(filter.getExpectedInsertions())
+                .numHashes(filter.getNumHashes())
+                .memoryBytes(filter.memoryBytes())
+                .expectedFalsePositiveRate(filter.expectedFalsePositiveRate())
+                .lookups(lookups.get())
+                .definitelyNew(definitelyNew.get())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.seo.content.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarityIndexStats {
+    private int nichesLoaded;
+    private long articlesIndexed;
+    private long queries;
+    private double averageQueryMicros;
+    private long localDuplicates;
+    private long localDistinct;
+    private long llmChecks;
+}
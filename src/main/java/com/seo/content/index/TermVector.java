@@ -0,0 +1,125 @@
+package com.seo.content.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sparse term-frequency vector over hashed features: words, word bigrams and
+ * character trigrams, so "dog training tips" and "tips for training dogs" still overlap.
+ * Features are kept sorted so two vectors can be compared with a single merge pass.
+ */
+final class TermVector {
+
+    private static final int DIMENSIONS = 1 << 20;
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float BIGRAM_WEIGHT = 0.5f;
+    private static final float TRIGRAM_WEIGHT = 0.25f;
+
+    private final int[] features;
+    private final float[] weights;
+
+    private TermVector(int[] features, float[] weights) {
+        this.features = features;
+        this.weights = weights;
+    }
+
+    static TermVector of(String text) {
+        Map<Integer, Float> counts = new HashMap<>();
+        String[] words = text == null ? new String[0]
+                : text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim().split(" ");
+
+        String previous = null;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            add(counts, "w:" + word, WORD_WEIGHT);
+            if (previous != null) {
+                add(counts, "b:" + previous + " " + word, BIGRAM_WEIGHT);
+            }
+            String padded = "#" + word + "#";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(counts, "c:" + padded.substring(i, i + 3), TRIGRAM_WEIGHT);
+            }
+            previous = word;
+        }
+
+        int[] features = counts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        float[] weights = new float[features.length];
+        for (int i = 0; i < features.length; i++) {
+            weights[i] = counts.get(features[i]);
+        }
+        return new TermVector(features, weights);
+    }
+
+    int[] features() {
+        return features;
+    }
+
+    boolean isEmpty() {
+        return features.length == 0;
+    }
+
+    /**
+     * Squared length of the vector once every feature is scaled by its idf
+     */
+    double weightedNormSquared(Idf idf) {
+        double sum = 0;
+        for (int i = 0; i < features.length; i++) {
+            double w = weights[i] * idf.of(features[i]);
+            sum += w * w;
+        }
+        return sum;
+    }
+
+    double weightedDot(TermVector other, Idf idf) {
+        double sum = 0;
+        int i = 0;
+        int j = 0;
+        while (i < features.length && j < other.features.length) {
+            if (features[i] == other.features[j]) {
+                double w = idf.of(features[i]);
+                sum += weights[i] * other.weights[j] * w * w;
+                i++;
+                j++;
+            } else if (features[i] < other.features[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Union of the features of both vectors, each listed once
+     */
+    static int[] union(TermVector a, TermVector b) {
+        int[] merged = new int[a.features.length + b.features.length];
+        System.arraycopy(a.features, 0, merged, 0, a.features.length);
+        System.arraycopy(b.features, 0, merged, a.features.length, b.features.length);
+        return Arrays.stream(merged).sorted().distinct().toArray();
+    }
+
+    private static void add(Map<Integer, Float> counts, String feature, float weight) {
+        counts.merge(hash(feature), weight, Float::sum);
+    }
+
+    private static int hash(String feature) {
+        // Murmur3 finalizer spreads String.hashCode before masking to the table size
+        int h = feature.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & (DIMENSIONS - 1);
+    }
+
+    @FunctionalInterface
+    interface Idf {
+        double of(int feature);
+    }
+}
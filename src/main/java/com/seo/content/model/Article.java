@@ -50,20 +50,32 @@ public class Article {
     @Column(name = "published_date")
     private LocalDateTime publishedDate;
     
+    // Streamed articles are stored while they are written; PARTIAL means the stream broke off
+    @Enumerated(EnumType.STRING)
+    // Database default so the column can be added to a table that already has rows
+    @Column(name = "generation_status", nullable = false,
+            columnDefinition = "varchar(20) default 'COMPLETE' not null")
+    @Builder.Default
+    private ArticleGenerationStatus generationStatus = ArticleGenerationStatus.COMPLETE;
+    
     @PrePersist
     protected void onCreate() {
         if (createdDate == null) {
             createdDate = LocalDateTime.now();
         }
         if (content != null) {
-            wordCount = content.split("\\s+").length;
+            wordCount = countWords(content);
         }
     }
     
     @PreUpdate
     protected void onUpdate() {
         if (content != null) {
-            wordCount = content.split("\\s+").length;
+            wordCount = countWords(content);
         }
     }
+    
+    public static int countWords(String content) {
+        return content.split("\\s+").length;
+    }
 }
@@ -0,0 +1,7 @@
+package com.seo.content.model;
+
+public enum ArticleGenerationStatus {
+    GENERATING,
+    PARTIAL,
+    COMPLETE
+}
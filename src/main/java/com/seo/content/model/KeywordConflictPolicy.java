@@ -0,0 +1,11 @@
+package com.seo.content.model;
+
+/**
+ * What keyword ingestion does when a keyword text is already stored
+ */
+public enum KeywordConflictPolicy {
+    // Leave the stored keyword untouched
+    SKIP,
+    // Keep the higher qualification score; a rejected keyword scoring 5 or more becomes unwritten
+    MERGE_SCORE
+}
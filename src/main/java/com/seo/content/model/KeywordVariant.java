@@ -0,0 +1,47 @@
+package com.seo.content.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A near-duplicate suggestion folded into the keyword that represents its cluster.
+ * Variants are never qualified on their own; they only keep the text from being rediscovered.
+ */
+@Entity
+@Table(name = "keyword_variants",
+       indexes = {
+           @Index(name = "idx_keyword_variant_text", columnList = "variant_text"),
+           @Index(name = "idx_keyword_variant_keyword_id", columnList = "keyword_id")
+       })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordVariant {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "keyword_id", nullable = false)
+    private PotentialKeyword keyword;
+    
+    @Column(name = "variant_text", nullable = false)
+    private String variantText;
+    
+    @Column(name = "discovered_date", nullable = false)
+    private LocalDateTime discoveredDate;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (discoveredDate == null) {
+            discoveredDate = LocalDateTime.now();
+        }
+    }
+}
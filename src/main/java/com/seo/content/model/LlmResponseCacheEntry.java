@@ -0,0 +1,47 @@
+package com.seo.content.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "llm_response_cache",
+       indexes = {
+           @Index(name = "idx_llm_cache_created_date", columnList = "created_date")
+       })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmResponseCacheEntry {
+    
+    // SHA-256 of model, temperature, max tokens, system prompt and user prompt
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+    
+    @Column(name = "model", nullable = false)
+    private String model;
+    
+    @Column(name = "content", columnDefinition = "TEXT", nullable = false)
+    private String content;
+    
+    @Column(name = "finish_reason", length = 50)
+    private String finishReason;
+    
+    @Column(name = "input_tokens")
+    private Integer inputTokens;
+    
+    @Column(name = "output_tokens")
+    private Integer outputTokens;
+    
+    @Column(name = "latency_ms")
+    private Long latencyMs;
+    
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+}
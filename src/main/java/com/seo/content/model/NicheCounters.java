@@ -0,0 +1,52 @@
+package com.seo.content.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running keyword and article totals for a niche. Rows are only ever changed by
+ * atomic increments in the transaction that changes the underlying data, so
+ * reading them never has to aggregate the base tables.
+ */
+@Entity
+@Table(name = "niche_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NicheCounters {
+    
+    @Id
+    @Column(name = "niche_id")
+    private Long nicheId;
+    
+    @Column(name = "total_keywords", nullable = false)
+    private long totalKeywords;
+    
+    @Column(name = "unwritten_keywords", nullable = false)
+    private long unwrittenKeywords;
+    
+    @Column(name = "written_keywords", nullable = false)
+    private long writtenKeywords;
+    
+    @Column(name = "rejected_keywords", nullable = false)
+    private long rejectedKeywords;
+    
+    // Keywords with a qualification score, the divisor for the average
+    @Column(name = "scored_keywords", nullable = false)
+    private long scoredKeywords;
+    
+    @Column(name = "score_sum", nullable = false)
+    private double scoreSum;
+    
+    @Column(name = "total_articles", nullable = false)
+    private long totalArticles;
+    
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+}
@@ -0,0 +1,33 @@
+package com.seo.content.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of keywords a niche has at one depth level, maintained alongside {@link NicheCounters}
+ */
+@Entity
+@Table(name = "niche_depth_stats",
+       uniqueConstraints = @UniqueConstraint(name = "uk_niche_depth_stats", columnNames = {"niche_id", "depth_level"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NicheDepthCount {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "niche_id", nullable = false)
+    private Long nicheId;
+    
+    @Column(name = "depth_level", nullable = false)
+    private Integer depthLevel;
+    
+    @Column(name = "keyword_count", nullable = false)
+    private long keywordCount;
+}
@@ -16,7 +16,8 @@ import java.util.List;
            @Index(name = "idx_keyword_text", columnList = "keyword_text"),
            @Index(name = "idx_status", columnList = "status"),
            @Index(name = "idx_depth_level", columnList = "depth_level"),
-           @Index(name = "idx_qualification_score", columnList = "qualification_score")
+           @Index(name = "idx_qualification_score", columnList = "qualification_score"),
+           @Index(name = "idx_parent_keyword_id", columnList = "parent_keyword_id")
        })
 @Data
 @Builder
@@ -0,0 +1,32 @@
+package com.seo.content.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "suggestion_cache",
+       indexes = {
+           @Index(name = "idx_suggestion_fetched_date", columnList = "fetched_date")
+       })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionCacheEntry {
+    
+    @Id
+    @Column(name = "query_text", length = 500)
+    private String queryText;
+    
+    // Newline-separated suggestion list
+    @Column(name = "suggestions", columnDefinition = "TEXT", nullable = false)
+    private String suggestions;
+    
+    @Column(name = "fetched_date", nullable = false)
+    private LocalDateTime fetchedDate;
+}
@@ -0,0 +1,79 @@
+package com.seo.content.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One execution of the daily workflow for a niche. The workflow context is
+ * checkpointed after every stage so a failed run can resume where it stopped.
+ */
+@Entity
+@Table(name = "workflow_runs",
+       indexes = {
+           @Index(name = "idx_workflow_run_niche_id", columnList = "niche_id"),
+           @Index(name = "idx_workflow_run_status", columnList = "status")
+       })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRun {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "niche_id", nullable = false)
+    private Long nicheId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private WorkflowRunStatus status = WorkflowRunStatus.RUNNING;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "current_stage")
+    private WorkflowStage currentStage;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_completed_stage")
+    private WorkflowStage lastCompletedStage;
+    
+    // JSON-serialized WorkflowContext as of the last checkpoint
+    @Column(name = "context_json", columnDefinition = "TEXT")
+    private String contextJson;
+    
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 1;
+    
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    @Column(name = "started_date", nullable = false)
+    private LocalDateTime startedDate;
+    
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+    
+    @Column(name = "completed_date")
+    private LocalDateTime completedDate;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (startedDate == null) {
+            startedDate = LocalDateTime.now();
+        }
+        updatedDate = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedDate = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,12 @@
+package com.seo.content.model;
+
+public enum WorkflowStage {
+    STRATEGY,
+    DISCOVERY,
+    QUALIFICATION,
+    SELECTION,
+    SIMILARITY,
+    GENERATION,
+    SUMMARY,
+    COMPLETED
+}
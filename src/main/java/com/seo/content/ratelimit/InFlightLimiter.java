@@ -0,0 +1,131 @@
+package com.seo.content.ratelimit;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking cap on concurrently running reactive calls.
+ * Callers beyond the limit wait in FIFO order without holding a thread.
+ */
+public class InFlightLimiter {
+
+    private final int maxInFlight;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int inFlight;
+
+    public InFlightLimiter(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Subscribes to the call once a permit is free and releases the permit
+     * when the call completes, fails or is cancelled
+     */
+    public <T> Mono<T> withPermit(Supplier<Mono<T>> call) {
+        return Mono.usingWhen(
+                acquire(),
+                permit -> call.get(),
+                permit -> release(),
+                (permit, error) -> release(),
+                permit -> release());
+    }
+
+    /**
+     * Streaming variant; the permit is held until the stream terminates or is cancelled
+     */
+    public <T> Flux<T> withPermitMany(Supplier<Flux<T>> call) {
+        return Flux.usingWhen(
+                acquire(),
+                permit -> call.get(),
+                permit -> release(),
+                (permit, error) -> release(),
+                permit -> release());
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getWaiting() {
+        return waiters.size();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private Mono<Boolean> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            // Registered before the waiter is visible to release(), so a cancel can never be missed
+            sink.onCancel(() -> abandon(waiter));
+            synchronized (this) {
+                if (waiter.cancelled) {
+                    return;
+                }
+                if (inFlight < maxInFlight) {
+                    inFlight++;
+                    waiter.granted = true;
+                } else {
+                    waiters.addLast(waiter);
+                }
+            }
+            if (waiter.granted) {
+                sink.success(Boolean.TRUE);
+            }
+        });
+    }
+
+    private Mono<Void> release() {
+        return Mono.fromRunnable(this::releasePermit);
+    }
+
+    private void releasePermit() {
+        Waiter next;
+        synchronized (this) {
+            next = waiters.pollFirst();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+            next.granted = true;
+        }
+        // Permit passes directly to the next waiter. If it was cancelled in the meantime the
+        // value is dropped and its cancel callback hands the permit on.
+        next.sink.success(Boolean.TRUE);
+    }
+
+    /**
+     * A sink only reports a cancel when its value was never delivered, so a granted
+     * permit that reaches this point is unused and must be released again
+     */
+    private void abandon(Waiter waiter) {
+        synchronized (this) {
+            waiter.cancelled = true;
+            if (!waiter.granted) {
+                waiters.remove(waiter);
+                return;
+            }
+        }
+        releasePermit();
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Boolean> sink;
+        // Both guarded by the limiter's lock
+        private boolean granted;
+        private boolean cancelled;
+
+        private Waiter(MonoSink<Boolean> sink) {
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.seo.content.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateBucketStats {
+    private String name;
+    private double permitsPerSecond;
+    private double capacity;
+    private double availablePermits;
+    private long acquisitions;
+    private long delayedAcquisitions;
+    private long totalWaitMs;
+    private long throttledResponses;
+    private long pausedMsRemaining;
+}
@@ -0,0 +1,187 @@
+package com.seo.content.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single owner of every outbound rate limit. Each upstream gets a named token bucket;
+ * callers block (or delay reactively) on permits instead of sleeping for fixed intervals,
+ * and a 429 pauses the whole bucket so all callers back off together.
+ */
+@Component
+@Slf4j
+public class RateGovernor {
+
+    public static final String SUGGEST = "suggest";
+    public static final String LLM_REQUESTS = "llm-requests";
+    public static final String LLM_TOKENS = "llm-tokens";
+
+    private final Map<String, Bucket> buckets = new LinkedHashMap<>();
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public RateGovernor(
+            @Value("${suggest.rate.permits-per-second:5}") double suggestPermitsPerSecond,
+            @Value("${suggest.rate.burst:5}") double suggestBurst,
+            @Value("${llm.rate.requests-per-minute:30}") double llmRequestsPerMinute,
+            @Value("${llm.rate.request-burst:4}") double llmRequestBurst,
+            @Value("${llm.rate.tokens-per-minute:20000}") double llmTokensPerMinute,
+            @Value("${rate.backoff.initial-ms:1000}") long initialBackoffMs,
+            @Value("${rate.backoff.max-seconds:60}") long maxBackoffSeconds) {
+        register(new TokenBucket(SUGGEST, suggestPermitsPerSecond, suggestBurst));
+        register(new TokenBucket(LLM_REQUESTS, llmRequestsPerMinute / 60.0, llmRequestBurst));
+        register(new TokenBucket(LLM_TOKENS, llmTokensPerMinute / 60.0, llmTokensPerMinute));
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+    }
+
+    /**
+     * Blocks the calling thread until the permits are available
+     */
+    public void acquire(String bucketName, double permits) throws InterruptedException {
+        long waitNanos = reserve(bucketName, permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public void acquire(String bucketName) throws InterruptedException {
+        acquire(bucketName, 1);
+    }
+
+    /**
+     * Completes once the permits are available, waiting on a timer rather than a thread
+     */
+    public Mono<Void> acquireAsync(String bucketName, double permits) {
+        return Mono.defer(() -> {
+            long waitNanos = reserve(bucketName, permits);
+            return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then() : Mono.empty();
+        });
+    }
+
+    /**
+     * Records permits that were used beyond what was reserved (a negative value refunds)
+     */
+    public void charge(String bucketName, double permits) {
+        if (permits != 0) {
+            bucket(bucketName).tokenBucket.charge(permits);
+        }
+    }
+
+    /**
+     * Handles a 429 from the upstream behind the bucket: pauses the bucket for the
+     * Retry-After period (or an exponential backoff when absent) and returns the delay
+     * the caller should wait before retrying
+     */
+    public Duration onThrottled(String bucketName, String retryAfter, long attempt) {
+        Bucket bucket = bucket(bucketName);
+        bucket.throttledResponses.incrementAndGet();
+
+        Duration delay = parseRetryAfter(retryAfter).orElseGet(() -> exponentialBackoff(attempt));
+        if (delay.compareTo(maxBackoff) > 0) {
+            delay = maxBackoff;
+        }
+        bucket.tokenBucket.pauseFor(delay.toNanos());
+
+        log.warn("Rate limited by {} (attempt {}) - pausing bucket for {} ms",
+                bucketName, attempt + 1, delay.toMillis());
+        return delay;
+    }
+
+    public Map<String, RateBucketStats> getStats() {
+        Map<String, RateBucketStats> stats = new LinkedHashMap<>();
+        buckets.forEach((name, bucket) -> stats.put(name, RateBucketStats.builder()
+                .name(name)
+                .permitsPerSecond(bucket.tokenBucket.getPermitsPerSecond())
+                .capacity(bucket.tokenBucket.getCapacity())
+                .availablePermits(bucket.tokenBucket.getAvailablePermits())
+                .acquisitions(bucket.acquisitions.get())
+                .delayedAcquisitions(bucket.delayedAcquisitions.get())
+                .totalWaitMs(TimeUnit.NANOSECONDS.toMillis(bucket.totalWaitNanos.get()))
+                .throttledResponses(bucket.throttledResponses.get())
+                .pausedMsRemaining(TimeUnit.NANOSECONDS.toMillis(bucket.tokenBucket.getPausedNanosRemaining()))
+                .build()));
+        return stats;
+    }
+
+    /**
+     * Parses a Retry-After header given either as delta-seconds or as an HTTP-date
+     */
+    static Optional<Duration> parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return Optional.empty();
+        }
+        String value = retryAfter.trim();
+        try {
+            double seconds = Double.parseDouble(value);
+            if (Double.isNaN(seconds) || seconds < 0) {
+                log.debug("Ignoring invalid Retry-After header: {}", value);
+                return Optional.empty();
+            }
+            return Optional.of(Duration.ofMillis((long) (seconds * 1000)));
+        } catch (NumberFormatException ignored) {
+            // Not delta-seconds, try the date form
+        }
+        try {
+            Instant retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration delay = Duration.between(Instant.now(), retryAt);
+            return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+        } catch (DateTimeParseException e) {
+            log.debug("Ignoring unparseable Retry-After header: {}", value);
+            return Optional.empty();
+        }
+    }
+
+    private Duration exponentialBackoff(long attempt) {
+        long multiplier = 1L << Math.min(attempt, 16);
+        return initialBackoff.multipliedBy(multiplier);
+    }
+
+    private long reserve(String bucketName, double permits) {
+        Bucket bucket = bucket(bucketName);
+        long waitNanos = bucket.tokenBucket.reserve(permits);
+        bucket.acquisitions.incrementAndGet();
+        if (waitNanos > 0) {
+            bucket.delayedAcquisitions.incrementAndGet();
+            bucket.totalWaitNanos.addAndGet(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    private Bucket bucket(String bucketName) {
+        Bucket bucket = buckets.get(bucketName);
+        if (bucket == null) {
+            throw new IllegalArgumentException("Unknown rate limit bucket: " + bucketName);
+        }
+        return bucket;
+    }
+
+    private void register(TokenBucket tokenBucket) {
+        buckets.put(tokenBucket.getName(), new Bucket(tokenBucket));
+    }
+
+    private static final class Bucket {
+        private final TokenBucket tokenBucket;
+        private final AtomicLong acquisitions = new AtomicLong();
+        private final AtomicLong delayedAcquisitions = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong throttledResponses = new AtomicLong();
+
+        private Bucket(TokenBucket tokenBucket) {
+            this.tokenBucket = tokenBucket;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.seo.content.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe token bucket. Permits refill continuously at a fixed rate up to
+ * the burst capacity; callers that find the bucket empty reserve future permits
+ * and wait their turn, so concurrent callers are served in arrival order.
+ * The bucket can also be paused, e.g. while honouring a Retry-After header.
+ */
+public class TokenBucket {
+
+    private final String name;
+    private final double permitsPerSecond;
+    private final double capacity;
+
+    private double availablePermits;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    public TokenBucket(String name, double permitsPerSecond, double capacity) {
+        if (permitsPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Rate and capacity must be positive for bucket: " + name);
+        }
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = capacity;
+        this.availablePermits = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Reserves permits and returns how long the caller must wait (in nanos)
+     * before using them. Requests larger than the capacity are clamped to it.
+     */
+    public synchronized long reserve(double permits) {
+        double requested = Math.min(permits, capacity);
+        long now = System.nanoTime();
+        refill(now);
+
+        double deficit = requested - availablePermits;
+        availablePermits -= requested;
+
+        long pauseNanos = Math.max(0L, pausedUntilNanos - now);
+        if (deficit <= 0) {
+            return pauseNanos;
+        }
+        return pauseNanos + (long) (deficit / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Charges permits that were already consumed (e.g. actual completion tokens)
+     * without waiting; later callers absorb the debt
+     */
+    public synchronized void charge(double permits) {
+        refill(System.nanoTime());
+        availablePermits -= permits;
+    }
+
+    /**
+     * Stops handing out permits for the given number of nanos and drops any saved-up burst,
+     * so callers resume at the steady rate once the pause ends
+     */
+    public synchronized void pauseFor(long nanos) {
+        long now = System.nanoTime();
+        refill(now);
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + nanos);
+        availablePermits = Math.min(availablePermits, 0);
+    }
+
+    public synchronized long getPausedNanosRemaining() {
+        return Math.max(0L, pausedUntilNanos - System.nanoTime());
+    }
+
+    /**
+     * Blocks until the requested permits are available
+     */
+    public void acquire(double permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    public synchronized double getAvailablePermits() {
+        refill(System.nanoTime());
+        return availablePermits;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public double getCapacity() {
+        return capacity;
+    }
+
+    private void refill(long now) {
+        // Nothing accrues while paused, even when no call arrived during the pause
+        long accruingSince = Math.max(lastRefillNanos, pausedUntilNanos);
+        if (now > accruingSince) {
+            double elapsedSeconds = (now - accruingSince) / (double) TimeUnit.SECONDS.toNanos(1);
+            availablePermits = Math.min(capacity, availablePermits + elapsedSeconds * permitsPerSecond);
+        }
+        lastRefillNanos = now;
+    }
+}
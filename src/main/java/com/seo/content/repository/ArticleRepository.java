@@ -1,13 +1,19 @@
 package com.seo.content.repository;
 
+import com.seo.content.dto.ArticleDetail;
+import com.seo.content.dto.ArticleSummary;
 import com.seo.content.model.Article;
+import com.seo.content.model.ArticleGenerationStatus;
 import com.seo.content.model.Niche;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long> {
@@ -22,4 +28,50 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
     
     @Query("SELECT a FROM Article a JOIN FETCH a.keyword WHERE a.niche = :niche")
     List<Article> findByNicheWithKeywords(@Param("niche") Niche niche);
+    
+    /**
+     * Id, title and keyword text of every complete article in the niche, for the similarity index.
+     * Unfinished articles are left out so a keyword never matches its own partial article.
+     */
+    @Query("SELECT a.id, a.title, a.keyword.keywordText FROM Article a WHERE a.niche.id = :nicheId " +
+           "AND a.generationStatus = com.seo.content.model.ArticleGenerationStatus.COMPLETE")
+    List<Object[]> findSimilarityIndexRows(@Param("nicheId") Long nicheId);
+    
+    @Query("SELECT a FROM Article a WHERE a.keyword.id = :keywordId")
+    Optional<Article> findByKeywordId(@Param("keywordId") Long keywordId);
+    
+    /**
+     * Writes the latest streamed content without loading the article.
+     * Clears the persistence context so a later read sees the new content.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Article a SET a.title = :title, a.metaDescription = :metaDescription, a.content = :content, " +
+           "a.wordCount = :wordCount, a.generationStatus = :status WHERE a.id = :id")
+    int updateGeneratedContent(@Param("id") Long id,
+                               @Param("title") String title,
+                               @Param("metaDescription") String metaDescription,
+                               @Param("content") String content,
+                               @Param("wordCount") Integer wordCount,
+                               @Param("status") ArticleGenerationStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Article a SET a.generationStatus = :status WHERE a.id = :id")
+    int updateGenerationStatus(@Param("id") Long id, @Param("status") ArticleGenerationStatus status);
+    
+    /**
+     * Keyset page of a niche's articles in one generation status, newest first, without the content
+     */
+    @Query("SELECT new com.seo.content.dto.ArticleSummary(a.id, k.id, k.keywordText, a.title, a.metaDescription, " +
+           "a.wordCount, a.generationStatus, a.createdDate, a.publishedDate) " +
+           "FROM Article a JOIN a.keyword k WHERE a.niche.id = :nicheId AND a.generationStatus = :status " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<ArticleSummary> findArticleSummaries(@Param("nicheId") Long nicheId,
+                                              @Param("status") ArticleGenerationStatus status,
+                                              @Param("beforeId") Long beforeId,
+                                              Limit limit);
+    
+    @Query("SELECT new com.seo.content.dto.ArticleDetail(a.id, a.niche.id, k.id, k.keywordText, a.title, " +
+           "a.metaDescription, a.content, a.wordCount, a.generationStatus, a.createdDate, a.publishedDate) " +
+           "FROM Article a JOIN a.keyword k WHERE a.id = :id")
+    Optional<ArticleDetail> findArticleDetail(@Param("id") Long id);
 }
@@ -22,4 +22,11 @@ public interface ExplorationLogRepository extends JpaRepository<ExplorationLog,
     @Query("SELECT el FROM ExplorationLog el WHERE el.niche = :niche " +
            "ORDER BY el.executionDate DESC LIMIT :limit")
     List<ExplorationLog> findRecentByNiche(@Param("niche") Niche niche, @Param("limit") int limit);
+    
+    /**
+     * Latest successful execution per niche as [nicheId, executionDate] rows
+     */
+    @Query("SELECT el.niche.id, MAX(el.executionDate) FROM ExplorationLog el " +
+           "WHERE el.success = true GROUP BY el.niche.id")
+    List<Object[]> findLastSuccessfulExecutionPerNiche();
 }
@@ -0,0 +1,216 @@
+package com.seo.content.repository;
+
+import com.seo.content.dto.KeywordUpsertResult;
+import com.seo.content.model.KeywordConflictPolicy;
+import com.seo.content.model.KeywordStatus;
+import com.seo.content.model.PotentialKeyword;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk write path for keywords. PotentialKeyword uses IDENTITY ids, which stops Hibernate
+ * from batching inserts, so saveAll costs one round trip per row. This issues one
+ * multi-row upsert per chunk instead; a keyword text that is already stored is resolved
+ * by the conflict policy and never fails the statement. Runs on the connection of the
+ * surrounding transaction.
+ */
+@Repository
+@Slf4j
+public class KeywordBulkRepository {
+
+    private static final String COLUMNS = "(keyword_text, depth_level, parent_keyword_id, niche_id, " +
+            "qualification_score, qualification_reasoning, status, discovered_date)";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SKIP_CONFLICT = " ON CONFLICT (keyword_text) DO NOTHING " +
+            "RETURNING id, keyword_text";
+
+    // Only keywords of the same niche that are not yet written are merged, and only upwards
+    private static final String MERGE_CONFLICT = " ON CONFLICT (keyword_text) DO UPDATE SET " +
+            "qualification_score = EXCLUDED.qualification_score, " +
+            "qualification_reasoning = EXCLUDED.qualification_reasoning, " +
+            "status = CASE WHEN potential_keywords.status = 'REJECTED' AND EXCLUDED.qualification_score >= 5.0 " +
+            "THEN 'UNWRITTEN' ELSE potential_keywords.status END " +
+            "WHERE potential_keywords.niche_id = EXCLUDED.niche_id " +
+            "AND potential_keywords.status <> 'WRITTEN' " +
+            "AND EXCLUDED.qualification_score > COALESCE(potential_keywords.qualification_score, -1) " +
+            "RETURNING id, keyword_text, (xmax = 0) AS inserted, status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public KeywordBulkRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${keywords.bulk-insert.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Inserts the keywords, resolving texts that already exist with the policy. Inserted
+     * keywords get their generated id set; duplicates within the list count as skipped.
+     */
+    public KeywordUpsertResult upsert(List<PotentialKeyword> keywords, KeywordConflictPolicy policy) {
+        KeywordUpsertResult result = new KeywordUpsertResult();
+        if (keywords.isEmpty()) {
+            return result;
+        }
+
+        long start = System.nanoTime();
+        List<PotentialKeyword> distinct = distinctByText(keywords, policy);
+        result.setSkipped(keywords.size() - distinct.size());
+
+        for (int i = 0; i < distinct.size(); i += chunkSize) {
+            List<PotentialKeyword> chunk = distinct.subList(i, Math.min(i + chunkSize, distinct.size()));
+            result.add(policy == KeywordConflictPolicy.MERGE_SCORE ? mergeChunk(chunk) : insertChunk(chunk));
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        log.debug("Upserted {} keywords ({}): {} inserted, {} merged, {} skipped in {} ms ({} rows/s)",
+                keywords.size(), policy, result.getInserted().size(), result.getMerged(), result.getSkipped(),
+                elapsedNanos / 1_000_000, Math.round(keywords.size() * 1_000_000_000.0 / elapsedNanos));
+        return result;
+    }
+
+    /**
+     * One row per text: the first one, or the best scored one when merging scores.
+     * The same text twice in one statement would make ON CONFLICT fail.
+     */
+    private List<PotentialKeyword> distinctByText(List<PotentialKeyword> keywords, KeywordConflictPolicy policy) {
+        Map<String, PotentialKeyword> byText = new LinkedHashMap<>();
+        for (PotentialKeyword keyword : keywords) {
+            byText.merge(keyword.getKeywordText(), keyword, (kept, candidate) ->
+                    policy == KeywordConflictPolicy.MERGE_SCORE && score(candidate) > score(kept) ? candidate : kept);
+        }
+        return new ArrayList<>(byText.values());
+    }
+
+    private KeywordUpsertResult insertChunk(List<PotentialKeyword> rows) {
+        Map<String, PotentialKeyword> byText = indexByText(rows);
+        KeywordUpsertResult result = new KeywordUpsertResult();
+
+        jdbcTemplate.query(insertSql(rows.size(), SKIP_CONFLICT), statement -> bindRows(statement, rows, 1),
+                resultSet -> {
+                    PotentialKeyword keyword = byText.get(resultSet.getString("keyword_text"));
+                    keyword.setId(resultSet.getLong("id"));
+                    result.getInserted().add(keyword);
+                });
+
+        result.setSkipped(rows.size() - result.getInserted().size());
+        return result;
+    }
+
+    /**
+     * Upserts through a CTE that first reads (and locks) the stored versions of the
+     * conflicting rows, so the score and status change of every merged row is known.
+     * Inserted and merged counts come from xmax alone and are exact. The score and
+     * promotion figures depend on that snapshot: a row another transaction inserted after
+     * it was taken is counted as merged, but its old values are unknown, so it adds nothing
+     * to them. Under concurrent writers those figures are therefore approximate.
+     */
+    private KeywordUpsertResult mergeChunk(List<PotentialKeyword> rows) {
+        Map<String, PotentialKeyword> byText = indexByText(rows);
+        KeywordUpsertResult result = new KeywordUpsertResult();
+
+        StringBuilder sql = new StringBuilder("WITH old AS (SELECT pk.keyword_text, pk.qualification_score, pk.status ")
+                .append("FROM potential_keywords pk WHERE pk.keyword_text IN (");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        sql.append(") FOR UPDATE), upserted AS (")
+                .append(insertSql(rows.size(), MERGE_CONFLICT))
+                .append(") SELECT u.id, u.keyword_text, u.inserted, u.status, ")
+                .append("o.keyword_text IS NOT NULL AS in_snapshot, ")
+                .append("o.qualification_score AS old_score, o.status AS old_status ")
+                .append("FROM upserted u LEFT JOIN old o ON o.keyword_text = u.keyword_text");
+
+        jdbcTemplate.query(sql.toString(), statement -> {
+            int index = 1;
+            for (PotentialKeyword keyword : rows) {
+                statement.setString(index++, keyword.getKeywordText());
+            }
+            bindRows(statement, rows, index);
+        }, resultSet -> {
+            PotentialKeyword keyword = byText.get(resultSet.getString("keyword_text"));
+            if (resultSet.getBoolean("inserted")) {
+                keyword.setId(resultSet.getLong("id"));
+                result.getInserted().add(keyword);
+                return;
+            }
+
+            result.setMerged(result.getMerged() + 1);
+            if (!resultSet.getBoolean("in_snapshot")) {
+                log.debug("Merged '{}' without its previous values, it was inserted concurrently",
+                        keyword.getKeywordText());
+                return;
+            }
+            double oldScore = resultSet.getDouble("old_score");
+            if (resultSet.wasNull()) {
+                result.setMergedNewlyScored(result.getMergedNewlyScored() + 1);
+                oldScore = 0;
+            }
+            result.setMergedScoreDelta(result.getMergedScoreDelta() + keyword.getQualificationScore() - oldScore);
+            if (KeywordStatus.REJECTED.name().equals(resultSet.getString("old_status"))
+                    && KeywordStatus.UNWRITTEN.name().equals(resultSet.getString("status"))) {
+                result.setPromoted(result.getPromoted() + 1);
+            }
+        });
+
+        result.setSkipped(rows.size() - result.getInserted().size() - result.getMerged());
+        return result;
+    }
+
+    private String insertSql(int rowCount, String conflictClause) {
+        StringBuilder sql = new StringBuilder(rowCount * (ROW_PLACEHOLDERS.length() + 2) + 200);
+        sql.append("INSERT INTO potential_keywords ").append(COLUMNS).append(" VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.append(conflictClause).toString();
+    }
+
+    private void bindRows(PreparedStatement statement, List<PotentialKeyword> rows, int firstIndex)
+            throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        int index = firstIndex;
+        for (PotentialKeyword keyword : rows) {
+            if (keyword.getDiscoveredDate() == null) {
+                keyword.setDiscoveredDate(now);
+            }
+            statement.setString(index++, keyword.getKeywordText());
+            statement.setInt(index++, keyword.getDepthLevel());
+            statement.setObject(index++, keyword.getParentKeyword() != null ? keyword.getParentKeyword().getId() : null,
+                    Types.BIGINT);
+            statement.setLong(index++, keyword.getNiche().getId());
+            statement.setObject(index++, keyword.getQualificationScore(), Types.DOUBLE);
+            statement.setString(index++, keyword.getQualificationReasoning());
+            statement.setString(index++, keyword.getStatus().name());
+            statement.setTimestamp(index++, Timestamp.valueOf(keyword.getDiscoveredDate()));
+        }
+    }
+
+    private Map<String, PotentialKeyword> indexByText(List<PotentialKeyword> rows) {
+        Map<String, PotentialKeyword> byText = new LinkedHashMap<>();
+        rows.forEach(keyword -> byText.put(keyword.getKeywordText(), keyword));
+        return byText;
+    }
+
+    private static double score(PotentialKeyword keyword) {
+        return keyword.getQualificationScore() != null ? keyword.getQualificationScore() : -1;
+    }
+}
@@ -0,0 +1,27 @@
+package com.seo.content.repository;
+
+import com.seo.content.model.KeywordVariant;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface KeywordVariantRepository extends JpaRepository<KeywordVariant, Long> {
+    
+    @Query("SELECT DISTINCT kv.variantText FROM KeywordVariant kv WHERE kv.variantText IN :variantTexts")
+    List<String> findExistingVariantTexts(@Param("variantTexts") Collection<String> variantTexts);
+    
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("SELECT kv.variantText FROM KeywordVariant kv")
+    Stream<String> streamAllVariantTexts();
+    
+    @Query("SELECT kv.variantText FROM KeywordVariant kv WHERE kv.keyword.id = :keywordId ORDER BY kv.variantText")
+    List<String> findVariantTextsByKeywordId(@Param("keywordId") Long keywordId);
+}
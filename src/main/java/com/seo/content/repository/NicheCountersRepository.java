@@ -0,0 +1,86 @@
+package com.seo.content.repository;
+
+import com.seo.content.model.NicheCounters;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NicheCountersRepository extends JpaRepository<NicheCounters, Long> {
+    
+    /**
+     * Adds the deltas to the niche's counters, creating the row on first use
+     */
+    @Modifying
+    @Query(value = "INSERT INTO niche_stats (niche_id, total_keywords, unwritten_keywords, written_keywords, " +
+                   "rejected_keywords, scored_keywords, score_sum, total_articles, updated_date) " +
+                   "VALUES (:nicheId, :total, :unwritten, :written, :rejected, :scored, :scoreSum, :articles, NOW()) " +
+                   "ON CONFLICT (niche_id) DO UPDATE SET " +
+                   "total_keywords = niche_stats.total_keywords + EXCLUDED.total_keywords, " +
+                   "unwritten_keywords = niche_stats.unwritten_keywords + EXCLUDED.unwritten_keywords, " +
+                   "written_keywords = niche_stats.written_keywords + EXCLUDED.written_keywords, " +
+                   "rejected_keywords = niche_stats.rejected_keywords + EXCLUDED.rejected_keywords, " +
+                   "scored_keywords = niche_stats.scored_keywords + EXCLUDED.scored_keywords, " +
+                   "score_sum = niche_stats.score_sum + EXCLUDED.score_sum, " +
+                   "total_articles = niche_stats.total_articles + EXCLUDED.total_articles, " +
+                   "updated_date = NOW()",
+           nativeQuery = true)
+    int increment(@Param("nicheId") Long nicheId,
+                  @Param("total") long total,
+                  @Param("unwritten") long unwritten,
+                  @Param("written") long written,
+                  @Param("rejected") long rejected,
+                  @Param("scored") long scored,
+                  @Param("scoreSum") double scoreSum,
+                  @Param("articles") long articles);
+    
+    @Modifying
+    @Query(value = "INSERT INTO niche_depth_stats (niche_id, depth_level, keyword_count) " +
+                   "VALUES (:nicheId, :depthLevel, :count) " +
+                   "ON CONFLICT (niche_id, depth_level) DO UPDATE SET " +
+                   "keyword_count = niche_depth_stats.keyword_count + EXCLUDED.keyword_count",
+           nativeQuery = true)
+    int incrementDepth(@Param("nicheId") Long nicheId,
+                       @Param("depthLevel") Integer depthLevel,
+                       @Param("count") long count);
+    
+    @Query(value = "SELECT n.id FROM niches n WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM niche_stats s WHERE s.niche_id = n.id)",
+           nativeQuery = true)
+    List<Long> findNicheIdsWithoutCounters();
+    
+    @Modifying
+    @Query(value = "DELETE FROM niche_depth_stats WHERE niche_id = :nicheId", nativeQuery = true)
+    int deleteDepthCounts(@Param("nicheId") Long nicheId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM niche_stats WHERE niche_id = :nicheId", nativeQuery = true)
+    int deleteCounters(@Param("nicheId") Long nicheId);
+    
+    /**
+     * Recomputes a niche's counters from the base tables
+     */
+    @Modifying
+    @Query(value = "INSERT INTO niche_stats (niche_id, total_keywords, unwritten_keywords, written_keywords, " +
+                   "rejected_keywords, scored_keywords, score_sum, total_articles, updated_date) " +
+                   "SELECT :nicheId, COUNT(*), " +
+                   "COUNT(*) FILTER (WHERE pk.status = 'UNWRITTEN'), " +
+                   "COUNT(*) FILTER (WHERE pk.status = 'WRITTEN'), " +
+                   "COUNT(*) FILTER (WHERE pk.status = 'REJECTED'), " +
+                   "COUNT(pk.qualification_score), COALESCE(SUM(pk.qualification_score), 0), " +
+                   "(SELECT COUNT(*) FROM articles a WHERE a.niche_id = :nicheId AND a.generation_status = 'COMPLETE'), NOW() " +
+                   "FROM potential_keywords pk WHERE pk.niche_id = :nicheId",
+           nativeQuery = true)
+    int insertFromBaseTables(@Param("nicheId") Long nicheId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO niche_depth_stats (niche_id, depth_level, keyword_count) " +
+                   "SELECT :nicheId, pk.depth_level, COUNT(*) FROM potential_keywords pk " +
+                   "WHERE pk.niche_id = :nicheId GROUP BY pk.depth_level",
+           nativeQuery = true)
+    int insertDepthCountsFromBaseTables(@Param("nicheId") Long nicheId);
+}
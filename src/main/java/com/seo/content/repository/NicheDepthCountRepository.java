@@ -0,0 +1,13 @@
+package com.seo.content.repository;
+
+import com.seo.content.model.NicheDepthCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NicheDepthCountRepository extends JpaRepository<NicheDepthCount, Long> {
+    
+    List<NicheDepthCount> findByNicheIdOrderByDepthLevel(Long nicheId);
+}
@@ -1,27 +1,76 @@
 package com.seo.content.repository;
 
+import com.seo.content.dto.KeywordSummary;
 import com.seo.content.model.KeywordStatus;
 import com.seo.content.model.Niche;
 import com.seo.content.model.PotentialKeyword;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PotentialKeywordRepository extends JpaRepository<PotentialKeyword, Long> {
     
+    String KEYWORD_SUMMARY = "SELECT new com.seo.content.dto.KeywordSummary(pk.id, pk.keywordText, pk.depthLevel, " +
+            "parent.id, pk.qualificationScore, pk.status, pk.discoveredDate, pk.writtenDate) " +
+            "FROM PotentialKeyword pk LEFT JOIN pk.parentKeyword parent ";
+    
+    // Recursive step of the subtree queries: descends while within maxDepth of the start and
+    // scoring at least minScore, so a low scoring keyword is cut off together with its subtree.
+    // The path array orders the rows depth-first and stops cycles in hand-edited data.
+    String TREE_COLUMNS = "pk.id, pk.parent_keyword_id, pk.keyword_text, pk.depth_level, " +
+            "pk.qualification_score, pk.status";
+    String SUBTREE_STEP = "UNION ALL " +
+            "SELECT " + TREE_COLUMNS + ", t.distance + 1, t.path || pk.id " +
+            "FROM potential_keywords pk JOIN tree t ON pk.parent_keyword_id = t.id " +
+            "WHERE pk.niche_id = :nicheId AND t.distance < :maxDepth " +
+            "AND COALESCE(pk.qualification_score, -1) >= :minScore AND pk.id <> ALL(t.path)) " +
+            "SELECT id, parent_keyword_id, keyword_text, depth_level, qualification_score, status, distance " +
+            "FROM tree ORDER BY path LIMIT :limit";
+    
     Optional<PotentialKeyword> findByKeywordText(String keywordText);
     
+    List<PotentialKeyword> findByKeywordTextIn(Collection<String> keywordTexts);
+    
+    /**
+     * Tree columns of the niche's keywords above an id, in id order, for the keyword tree index
+     */
+    @Query("SELECT pk.id, parent.id, pk.keywordText, pk.depthLevel, pk.qualificationScore, pk.status " +
+           "FROM PotentialKeyword pk LEFT JOIN pk.parentKeyword parent " +
+           "WHERE pk.niche.id = :nicheId AND pk.id > :afterId ORDER BY pk.id")
+    List<Object[]> findKeywordTreeRows(@Param("nicheId") Long nicheId, @Param("afterId") Long afterId);
+    
+    @Query("SELECT pk FROM PotentialKeyword pk JOIN FETCH pk.niche WHERE pk.id = :id")
+    Optional<PotentialKeyword> findByIdWithNiche(@Param("id") Long id);
+    
     boolean existsByKeywordText(String keywordText);
     
+    boolean existsByIdAndNicheId(Long id, Long nicheId);
+    
+    @Query("SELECT pk.keywordText FROM PotentialKeyword pk WHERE pk.keywordText IN :keywordTexts")
+    List<String> findExistingKeywordTexts(@Param("keywordTexts") Collection<String> keywordTexts);
+    
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("SELECT pk.keywordText FROM PotentialKeyword pk")
+    Stream<String> streamAllKeywordTexts();
+    
     List<PotentialKeyword> findByNicheAndStatus(Niche niche, KeywordStatus status);
     
     List<PotentialKeyword> findByNiche(Niche niche);
     
+    List<PotentialKeyword> findTop10ByNicheOrderByDiscoveredDateDesc(Niche niche);
+    
     @Query("SELECT pk FROM PotentialKeyword pk WHERE pk.niche = :niche AND pk.status = :status " +
            "AND pk.qualificationScore IS NOT NULL ORDER BY pk.qualificationScore DESC")
     List<PotentialKeyword> findTopQualifiedKeywords(@Param("niche") Niche niche, 
@@ -44,4 +93,107 @@ public interface PotentialKeywordRepository extends JpaRepository<PotentialKeywo
     
     @Query("SELECT COUNT(pk) FROM PotentialKeyword pk WHERE pk.niche = :niche AND pk.status = :status")
     Long countByNicheAndStatus(@Param("niche") Niche niche, @Param("status") KeywordStatus status);
+    
+    @Query("SELECT pk.status FROM PotentialKeyword pk WHERE pk.id = :id")
+    Optional<KeywordStatus> findStatusById(@Param("id") Long id);
+    
+    /**
+     * Marks a keyword as written without merging the entity; returns 0 if it already was
+     */
+    @Modifying
+    @Query("UPDATE PotentialKeyword pk SET pk.status = 'WRITTEN', pk.writtenDate = :writtenDate " +
+           "WHERE pk.id = :id AND pk.status <> 'WRITTEN'")
+    int markWritten(@Param("id") Long id, @Param("writtenDate") LocalDateTime writtenDate);
+    
+    /**
+     * Keyset page of a niche's keywords in id order, optionally filtered by status and depth
+     */
+    @Query(KEYWORD_SUMMARY +
+           "WHERE pk.niche.id = :nicheId AND pk.id > :afterId " +
+           "AND (:status IS NULL OR pk.status = :status) AND (:depth IS NULL OR pk.depthLevel = :depth) " +
+           "ORDER BY pk.id")
+    List<KeywordSummary> findKeywordSummaries(@Param("nicheId") Long nicheId,
+                                              @Param("status") KeywordStatus status,
+                                              @Param("depth") Integer depth,
+                                              @Param("afterId") Long afterId,
+                                              Limit limit);
+    
+    /**
+     * Keyset page of unwritten qualified keywords, best score first
+     */
+    @Query(KEYWORD_SUMMARY +
+           "WHERE pk.niche.id = :nicheId AND pk.status = 'UNWRITTEN' AND pk.qualificationScore >= 5.0 " +
+           "AND (pk.qualificationScore < :afterScore " +
+           "     OR (pk.qualificationScore = :afterScore AND pk.id > :afterId)) " +
+           "ORDER BY pk.qualificationScore DESC, pk.id ASC")
+    List<KeywordSummary> findUnwrittenKeywordSummaries(@Param("nicheId") Long nicheId,
+                                                       @Param("afterScore") Double afterScore,
+                                                       @Param("afterId") Long afterId,
+                                                       Limit limit);
+    
+    /**
+     * All keyword statistics of a niche in one pass over its keywords. Rows are
+     * [statusRolledUp, depthRolledUp, status, depthLevel, count, avgScore, medianScore,
+     * p90Score, maxDepth, articleCount]; the grand-total row has both grouping flags set.
+     */
+    @Query(value = "SELECT GROUPING(pk.status), GROUPING(pk.depth_level), pk.status, pk.depth_level, " +
+                   "COUNT(*), AVG(pk.qualification_score), " +
+                   "percentile_cont(0.5) WITHIN GROUP (ORDER BY pk.qualification_score), " +
+                   "percentile_cont(0.9) WITHIN GROUP (ORDER BY pk.qualification_score), " +
+                   "MAX(pk.depth_level), " +
+                   "(SELECT COUNT(*) FROM articles a WHERE a.niche_id = :nicheId AND a.generation_status = 'COMPLETE') " +
+                   "FROM potential_keywords pk WHERE pk.niche_id = :nicheId " +
+                   "GROUP BY GROUPING SETS ((), (pk.status), (pk.depth_level))",
+           nativeQuery = true)
+    List<Object[]> aggregateNicheStats(@Param("nicheId") Long nicheId);
+    
+    /**
+     * The subtree under a keyword in one query, depth-first. Rows are [id, parentKeywordId,
+     * keywordText, depthLevel, qualificationScore, status, distance].
+     */
+    @Query(value = "WITH RECURSIVE tree AS (" +
+                   "SELECT " + TREE_COLUMNS + ", 0 AS distance, ARRAY[pk.id] AS path " +
+                   "FROM potential_keywords pk " +
+                   "WHERE pk.id = :rootId AND pk.niche_id = :nicheId " +
+                   "AND COALESCE(pk.qualification_score, -1) >= :minScore " +
+                   SUBTREE_STEP,
+           nativeQuery = true)
+    List<Object[]> findSubtreeRows(@Param("nicheId") Long nicheId,
+                                   @Param("rootId") Long rootId,
+                                   @Param("maxDepth") int maxDepth,
+                                   @Param("minScore") double minScore,
+                                   @Param("limit") int limit);
+    
+    /**
+     * Every tree of the niche, starting from keywords without a parent in the niche. Same row layout.
+     */
+    @Query(value = "WITH RECURSIVE tree AS (" +
+                   "SELECT " + TREE_COLUMNS + ", 0 AS distance, ARRAY[pk.id] AS path " +
+                   "FROM potential_keywords pk " +
+                   "WHERE pk.niche_id = :nicheId " +
+                   "AND COALESCE(pk.qualification_score, -1) >= :minScore " +
+                   "AND NOT EXISTS (SELECT 1 FROM potential_keywords parent " +
+                   "                WHERE parent.id = pk.parent_keyword_id AND parent.niche_id = :nicheId) " +
+                   SUBTREE_STEP,
+           nativeQuery = true)
+    List<Object[]> findNicheTreeRows(@Param("nicheId") Long nicheId,
+                                     @Param("maxDepth") int maxDepth,
+                                     @Param("minScore") double minScore,
+                                     @Param("limit") int limit);
+    
+    /**
+     * A keyword and all its ancestors in one query, root first. Same row layout,
+     * with distance counting the levels up from the keyword.
+     */
+    @Query(value = "WITH RECURSIVE chain AS (" +
+                   "SELECT " + TREE_COLUMNS + ", 0 AS distance, ARRAY[pk.id] AS path " +
+                   "FROM potential_keywords pk WHERE pk.id = :keywordId " +
+                   "UNION ALL " +
+                   "SELECT " + TREE_COLUMNS + ", c.distance + 1, c.path || pk.id " +
+                   "FROM potential_keywords pk JOIN chain c ON pk.id = c.parent_keyword_id " +
+                   "WHERE pk.id <> ALL(c.path)) " +
+                   "SELECT id, parent_keyword_id, keyword_text, depth_level, qualification_score, status, distance " +
+                   "FROM chain ORDER BY distance DESC",
+           nativeQuery = true)
+    List<Object[]> findAncestorRows(@Param("keywordId") Long keywordId);
 }
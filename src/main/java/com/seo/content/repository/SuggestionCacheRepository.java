@@ -0,0 +1,20 @@
+package com.seo.content.repository;
+
+import com.seo.content.model.SuggestionCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SuggestionCacheRepository extends JpaRepository<SuggestionCacheEntry, String> {
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SuggestionCacheEntry sc WHERE sc.fetchedDate < :cutoff")
+    int deleteFetchedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
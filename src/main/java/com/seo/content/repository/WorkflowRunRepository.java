@@ -0,0 +1,47 @@
+package com.seo.content.repository;
+
+import com.seo.content.model.WorkflowRun;
+import com.seo.content.model.WorkflowRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WorkflowRunRepository extends JpaRepository<WorkflowRun, Long> {
+    
+    List<WorkflowRun> findTop20ByNicheIdOrderByStartedDateDesc(Long nicheId);
+    
+    Optional<WorkflowRun> findFirstByNicheIdOrderByStartedDateDesc(Long nicheId);
+    
+    /**
+     * Flags a run as failed without touching its last checkpoint
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WorkflowRun wr SET wr.status = 'FAILED', wr.errorMessage = :errorMessage, " +
+           "wr.updatedDate = :updatedDate WHERE wr.id = :id")
+    int markFailed(@Param("id") Long id,
+                   @Param("errorMessage") String errorMessage,
+                   @Param("updatedDate") LocalDateTime updatedDate);
+    
+    /**
+     * Claims a failed or stale run for a resume attempt. Returns 0 when another caller
+     * claimed it first or it is still running, so only one resume ever executes the run.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE WorkflowRun wr SET wr.status = 'RUNNING', wr.attempts = wr.attempts + 1, " +
+           "wr.errorMessage = NULL, wr.updatedDate = :updatedDate " +
+           "WHERE wr.id = :id AND (wr.status = 'FAILED' " +
+           "OR (wr.status = 'RUNNING' AND wr.updatedDate < :staleBefore))")
+    int claimForResume(@Param("id") Long id,
+                       @Param("staleBefore") LocalDateTime staleBefore,
+                       @Param("updatedDate") LocalDateTime updatedDate);
+}
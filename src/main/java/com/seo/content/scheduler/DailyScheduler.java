@@ -1,24 +1,59 @@
 package com.seo.content.scheduler;
 
 import com.seo.content.model.Niche;
+import com.seo.content.repository.ExplorationLogRepository;
 import com.seo.content.repository.NicheRepository;
 import com.seo.content.service.ContentOrchestrationService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongConsumer;
 
+/**
+ * Runs niche workflows on a bounded worker pool. Niches are queued least-recently-explored
+ * first so a run cut short by the deadline favours the skipped niches next time;
+ * outbound calls from all workers share the same rate governor.
+ */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 @ConditionalOnProperty(name = "scheduler.enabled", havingValue = "true", matchIfMissing = true)
 public class DailyScheduler {
     
     private final ContentOrchestrationService orchestrationService;
     private final NicheRepository nicheRepository;
+    private final ExplorationLogRepository explorationLogRepository;
+    private final ExecutorService nicheExecutor;
+    private final Duration runDeadline;
+    
+    public DailyScheduler(
+            ContentOrchestrationService orchestrationService,
+            NicheRepository nicheRepository,
+            ExplorationLogRepository explorationLogRepository,
+            @Qualifier("nicheExecutor") ExecutorService nicheExecutor,
+            @Value("${scheduler.deadline-minutes:300}") long deadlineMinutes) {
+        this.orchestrationService = orchestrationService;
+        this.nicheRepository = nicheRepository;
+        this.explorationLogRepository = explorationLogRepository;
+        this.nicheExecutor = nicheExecutor;
+        this.runDeadline = Duration.ofMinutes(deadlineMinutes);
+    }
     
     /**
      * Daily workflow execution - runs at 2 AM every day
@@ -29,29 +64,14 @@ public class DailyScheduler {
         log.info("=== STARTING SCHEDULED DAILY WORKFLOW ===");
         
         try {
-            List<Niche> allNiches = nicheRepository.findAll();
+            List<Niche> allNiches = findNichesInFairOrder();
             
             if (allNiches.isEmpty()) {
                 log.warn("No niches found in database. Skipping daily workflow.");
                 return;
             }
             
-            for (Niche niche : allNiches) {
-                try {
-                    log.info("Processing niche: {} (ID: {})", niche.getNicheName(), niche.getId());
-                    orchestrationService.executeDailyWorkflow(niche.getId());
-                    log.info("Successfully completed workflow for niche: {}", niche.getNicheName());
-                    
-                    // Add delay between niches to avoid rate limiting
-                    if (allNiches.size() > 1) {
-                        Thread.sleep(5000); // 5 second delay
-                    }
-                    
-                } catch (Exception e) {
-                    log.error("Error processing niche: {}", niche.getNicheName(), e);
-                    // Continue with next niche even if one fails
-                }
-            }
+            runNiches("daily", allNiches, orchestrationService::executeDailyWorkflow);
             
             log.info("=== DAILY WORKFLOW COMPLETED FOR ALL NICHES ===");
             
@@ -69,18 +89,10 @@ public class DailyScheduler {
         log.info("=== STARTING WEEKLY DEEP EXPLORATION ===");
         
         try {
-            List<Niche> allNiches = nicheRepository.findAll();
+            List<Niche> allNiches = findNichesInFairOrder();
             
-            for (Niche niche : allNiches) {
-                try {
-                    log.info("Deep exploration for niche: {}", niche.getNicheName());
-                    // This would trigger a more aggressive exploration strategy
-                    orchestrationService.executeDailyWorkflow(niche.getId());
-                    
-                } catch (Exception e) {
-                    log.error("Error in weekly exploration for niche: {}", niche.getNicheName(), e);
-                }
-            }
+            // This would trigger a more aggressive exploration strategy
+            runNiches("weekly", allNiches, orchestrationService::executeDailyWorkflow);
             
             log.info("=== WEEKLY DEEP EXPLORATION COMPLETED ===");
             
@@ -101,4 +113,111 @@ public class DailyScheduler {
             log.error("Health check failed", e);
         }
     }
+    
+    /**
+     * Submits one task per niche and waits for them until the run deadline.
+     * Niches still queued or running at the deadline are cancelled and reported as such.
+     */
+    private void runNiches(String runName, List<Niche> niches, LongConsumer workflow) {
+        long runStart = System.nanoTime();
+        long deadlineNanos = runStart + runDeadline.toNanos();
+        
+        List<NicheRunResult> results = new ArrayList<>(niches.size());
+        List<Future<NicheRunResult>> futures = new ArrayList<>(niches.size());
+        for (Niche niche : niches) {
+            long submittedAt = System.nanoTime();
+            futures.add(nicheExecutor.submit(() -> runNiche(niche, workflow, submittedAt, deadlineNanos)));
+        }
+        
+        for (int i = 0; i < futures.size(); i++) {
+            Niche niche = niches.get(i);
+            Future<NicheRunResult> future = futures.get(i);
+            try {
+                long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+                results.add(future.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException | CancellationException e) {
+                future.cancel(true);
+                results.add(new NicheRunResult(niche.getId(), niche.getNicheName(), NicheRunStatus.DEADLINE, -1, -1));
+            } catch (ExecutionException e) {
+                log.error("Unexpected error running niche: {}", niche.getNicheName(), e.getCause());
+                results.add(new NicheRunResult(niche.getId(), niche.getNicheName(), NicheRunStatus.FAILED, -1, -1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                log.warn("{} run interrupted after {} of {} niches", runName, results.size(), niches.size());
+                return;
+            }
+        }
+        
+        logRunReport(runName, results, System.nanoTime() - runStart);
+    }
+    
+    private NicheRunResult runNiche(Niche niche, LongConsumer workflow, long submittedAt, long deadlineNanos) {
+        long startedAt = System.nanoTime();
+        long queueWaitMs = TimeUnit.NANOSECONDS.toMillis(startedAt - submittedAt);
+        
+        if (startedAt >= deadlineNanos) {
+            return new NicheRunResult(niche.getId(), niche.getNicheName(), NicheRunStatus.DEADLINE, queueWaitMs, 0);
+        }
+        
+        NicheRunStatus status = NicheRunStatus.SUCCEEDED;
+        try {
+            log.info("Processing niche: {} (ID: {}) after {} ms in queue", niche.getNicheName(), niche.getId(), queueWaitMs);
+            workflow.accept(niche.getId());
+            log.info("Successfully completed workflow for niche: {}", niche.getNicheName());
+        } catch (Exception e) {
+            log.error("Error processing niche: {}", niche.getNicheName(), e);
+            // Other niches carry on even if one fails
+            status = NicheRunStatus.FAILED;
+        }
+        
+        long executionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        return new NicheRunResult(niche.getId(), niche.getNicheName(), status, queueWaitMs, executionMs);
+    }
+    
+    private void logRunReport(String runName, List<NicheRunResult> results, long elapsedNanos) {
+        for (NicheRunResult result : results) {
+            log.info("[{}] niche {} (ID: {}): {} - queue wait {} ms, execution {} ms",
+                    runName, result.nicheName(), result.nicheId(), result.status(),
+                    result.queueWaitMs(), result.executionMs());
+        }
+        
+        Map<NicheRunStatus, Long> counts = new HashMap<>();
+        results.forEach(r -> counts.merge(r.status(), 1L, Long::sum));
+        double avgQueueWaitMs = results.stream().filter(r -> r.queueWaitMs() >= 0)
+                .mapToLong(NicheRunResult::queueWaitMs).average().orElse(0);
+        double avgExecutionMs = results.stream().filter(r -> r.executionMs() > 0)
+                .mapToLong(NicheRunResult::executionMs).average().orElse(0);
+        
+        log.info("[{}] {} niches in {} s - succeeded: {}, failed: {}, hit deadline: {}, " +
+                        "avg queue wait {} ms, avg execution {} ms",
+                runName, results.size(), TimeUnit.NANOSECONDS.toSeconds(elapsedNanos),
+                counts.getOrDefault(NicheRunStatus.SUCCEEDED, 0L),
+                counts.getOrDefault(NicheRunStatus.FAILED, 0L),
+                counts.getOrDefault(NicheRunStatus.DEADLINE, 0L),
+                Math.round(avgQueueWaitMs), Math.round(avgExecutionMs));
+    }
+    
+    /**
+     * Niches that have never completed a run come first, then the longest-waiting ones
+     */
+    private List<Niche> findNichesInFairOrder() {
+        Map<Long, LocalDateTime> lastRuns = new HashMap<>();
+        for (Object[] row : explorationLogRepository.findLastSuccessfulExecutionPerNiche()) {
+            lastRuns.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        
+        List<Niche> niches = new ArrayList<>(nicheRepository.findAll());
+        niches.sort(Comparator.comparing((Niche n) -> lastRuns.get(n.getId()),
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return niches;
+    }
+    
+    private enum NicheRunStatus {
+        SUCCEEDED, FAILED, DEADLINE
+    }
+    
+    private record NicheRunResult(Long nicheId, String nicheName, NicheRunStatus status,
+                                  long queueWaitMs, long executionMs) {
+    }
 }
@@ -0,0 +1,106 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.BatchSizingStats;
+import com.seo.content.dto.LLMDto.Usage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+
+/**
+ * Chooses qualification batch sizes from observed token usage.
+ * Grows batches towards the largest size whose expected completion still fits
+ * comfortably in max_tokens (and whose prompt fits the context window), which
+ * amortizes the fixed prompt over more keywords. Halves the size on truncation.
+ */
+class AdaptiveBatchSizer {
+
+    private static final double SMOOTHING = 0.3;
+    private static final double MAX_GROWTH = 1.5;
+    private static final int HISTORY = 50;
+
+    private final int minSize;
+    private final int maxSize;
+    private final int maxCompletionTokens;
+    private final int contextWindowTokens;
+    private final double targetUtilization;
+
+    private int currentSize;
+    private double completionTokensPerKeyword;
+    private double promptTokensPerKeyword;
+
+    private long batches;
+    private long truncatedBatches;
+    private long keywords;
+    private long totalTokens;
+    private long totalLatencyMs;
+    private final Deque<Integer> recentSizes = new ArrayDeque<>();
+
+    AdaptiveBatchSizer(int initialSize, int minSize, int maxSize,
+                       int maxCompletionTokens, int contextWindowTokens, double targetUtilization) {
+        this.minSize = Math.max(1, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.currentSize = Math.min(this.maxSize, Math.max(this.minSize, initialSize));
+        this.maxCompletionTokens = maxCompletionTokens;
+        this.contextWindowTokens = contextWindowTokens;
+        this.targetUtilization = targetUtilization;
+    }
+
+    synchronized int nextBatchSize() {
+        recentSizes.addLast(currentSize);
+        if (recentSizes.size() > HISTORY) {
+            recentSizes.removeFirst();
+        }
+        return currentSize;
+    }
+
+    /**
+     * Feeds back the outcome of one batch and adjusts the next batch size
+     */
+    synchronized void record(int batchSize, Usage usage, boolean truncated, long latencyMs) {
+        batches++;
+        totalLatencyMs += latencyMs;
+
+        if (truncated) {
+            truncatedBatches++;
+            currentSize = Math.max(minSize, batchSize / 2);
+            return;
+        }
+
+        keywords += batchSize;
+
+        if (usage == null || usage.getOutputTokens() == null || usage.getInputTokens() == null) {
+            return;
+        }
+
+        totalTokens += usage.getInputTokens() + usage.getOutputTokens();
+        completionTokensPerKeyword = smooth(completionTokensPerKeyword, (double) usage.getOutputTokens() / batchSize);
+        promptTokensPerKeyword = smooth(promptTokensPerKeyword, (double) usage.getInputTokens() / batchSize);
+
+        int completionBound = (int) (maxCompletionTokens * targetUtilization / Math.max(1.0, completionTokensPerKeyword));
+        int contextBound = (int) ((contextWindowTokens - maxCompletionTokens) * targetUtilization
+                / Math.max(1.0, promptTokensPerKeyword));
+        int growthBound = (int) Math.ceil(currentSize * MAX_GROWTH);
+
+        currentSize = Math.max(minSize, Math.min(maxSize, Math.min(growthBound, Math.min(completionBound, contextBound))));
+    }
+
+    synchronized BatchSizingStats getStats() {
+        return BatchSizingStats.builder()
+                .currentBatchSize(currentSize)
+                .batches(batches)
+                .truncatedBatches(truncatedBatches)
+                .keywordsQualified(keywords)
+                .totalTokens(totalTokens)
+                .completionTokensPerKeyword(completionTokensPerKeyword)
+                .promptTokensPerKeyword(promptTokensPerKeyword)
+                .keywordsPerThousandTokens(totalTokens == 0 ? 0 : keywords * 1000.0 / totalTokens)
+                .keywordsPerSecond(totalLatencyMs == 0 ? 0 : keywords * 1000.0 / totalLatencyMs)
+                .recentBatchSizes(new ArrayList<>(recentSizes))
+                .build();
+    }
+
+    private double smooth(double current, double sample) {
+        return current == 0 ? sample : current + SMOOTHING * (sample - current);
+    }
+}
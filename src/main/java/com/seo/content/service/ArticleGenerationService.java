@@ -0,0 +1,236 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.LLMDto.ArticleContent;
+import com.seo.content.index.KeywordTreeIndex;
+import com.seo.content.model.Article;
+import com.seo.content.model.ArticleGenerationStatus;
+import com.seo.content.model.KeywordStatus;
+import com.seo.content.model.Niche;
+import com.seo.content.model.PotentialKeyword;
+import com.seo.content.repository.ArticleRepository;
+import com.seo.content.repository.PotentialKeywordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.IntConsumer;
+
+/**
+ * Generates an article for a keyword and stores it.
+ * In streaming mode the article row is created up front and its content is flushed
+ * every few thousand characters, each flush in its own short transaction, so a long
+ * generation never holds a connection and a broken stream still leaves the text written so far.
+ * Only COMPLETE articles count towards the niche's article total.
+ */
+@Service
+@Slf4j
+public class ArticleGenerationService {
+
+    private static final int MAX_HEADER_LENGTH = 500;
+
+    private final LLMService llmService;
+    private final ArticleRepository articleRepository;
+    private final PotentialKeywordRepository keywordRepository;
+    private final ContentSimilarityService contentSimilarityService;
+    private final NicheCounterService nicheCounterService;
+    private final KeywordTreeIndex keywordTreeIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean streaming;
+    private final int flushChars;
+
+    public ArticleGenerationService(
+            LLMService llmService,
+            ArticleRepository articleRepository,
+            PotentialKeywordRepository keywordRepository,
+            ContentSimilarityService contentSimilarityService,
+            NicheCounterService nicheCounterService,
+            KeywordTreeIndex keywordTreeIndex,
+            TransactionTemplate transactionTemplate,
+            @Value("${llm.article.streaming:true}") boolean streaming,
+            @Value("${llm.article.flush-chars:2000}") int flushChars) {
+        this.llmService = llmService;
+        this.articleRepository = articleRepository;
+        this.keywordRepository = keywordRepository;
+        this.contentSimilarityService = contentSimilarityService;
+        this.nicheCounterService = nicheCounterService;
+        this.keywordTreeIndex = keywordTreeIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.streaming = streaming;
+        this.flushChars = Math.max(1, flushChars);
+    }
+
+    /**
+     * Generates and saves the article. A COMPLETE article also marks the keyword WRITTEN;
+     * a PARTIAL one leaves the keyword unwritten so a later run regenerates it.
+     *
+     * @param progress receives the number of content characters stored so far
+     */
+    public Article generate(PotentialKeyword keyword, Niche niche, IntConsumer progress) {
+        if (!streaming) {
+            ArticleContent content = llmService.generateArticle(keyword, niche);
+            Article article = saveCompleteArticle(keyword, niche, content);
+            keywordTreeIndex.updateStatus(niche.getId(), keyword.getId(), KeywordStatus.WRITTEN);
+            indexArticle(article, niche, keyword);
+            progress.accept(content.getContent() != null ? content.getContent().length() : 0);
+            return article;
+        }
+        return generateStreaming(keyword, niche, progress);
+    }
+
+    private Article generateStreaming(PotentialKeyword keyword, Niche niche, IntConsumer progress) {
+        StartedArticle started = startArticle(keyword, niche);
+        Long articleId = started.id();
+        ArticleStreamAssembler assembler = new ArticleStreamAssembler();
+        int flushedLength = 0;
+
+        try {
+            for (String delta : llmService.streamArticle(keyword, niche).toIterable()) {
+                assembler.append(delta);
+                if (assembler.getContentLength() - flushedLength >= flushChars) {
+                    flush(articleId, keyword, assembler, ArticleGenerationStatus.GENERATING);
+                    flushedLength = assembler.getContentLength();
+                    progress.accept(flushedLength);
+                }
+            }
+        } catch (RuntimeException e) {
+            assembler.finish();
+            if (!assembler.hasContent()) {
+                abandonArticle(started);
+                throw e;
+            }
+            log.warn("Article stream for '{}' broke off after {} chars, keeping partial article: {}",
+                    keyword.getKeywordText(), assembler.getContentLength(), e.getMessage());
+            flush(articleId, keyword, assembler, ArticleGenerationStatus.PARTIAL);
+            progress.accept(assembler.getContentLength());
+            // Not indexed: the keyword stays unwritten and must not look like a duplicate of itself
+            return loadArticle(articleId);
+        }
+
+        assembler.finish();
+        if (!assembler.hasContent()) {
+            abandonArticle(started);
+            throw new RuntimeException("LLM returned an empty article for: " + keyword.getKeywordText());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            markWritten(keyword, niche);
+            flush(articleId, keyword, assembler, ArticleGenerationStatus.COMPLETE);
+            nicheCounterService.recordArticlesAdded(niche.getId(), 1);
+        });
+        keywordTreeIndex.updateStatus(niche.getId(), keyword.getId(), KeywordStatus.WRITTEN);
+        progress.accept(assembler.getContentLength());
+        return indexArticle(loadArticle(articleId), niche, keyword);
+    }
+
+    /**
+     * Creates the GENERATING row, or reuses the one left behind by an earlier interrupted attempt.
+     * A reused row keeps its earlier content until the first flush of the new stream replaces it.
+     */
+    private StartedArticle startArticle(PotentialKeyword keyword, Niche niche) {
+        return transactionTemplate.execute(status -> {
+            Article article = articleRepository.findByKeywordId(keyword.getId()).orElse(null);
+            if (article == null) {
+                article = Article.builder()
+                        .keyword(keyword)
+                        .niche(niche)
+                        .title(fallbackTitle(keyword))
+                        .content("")
+                        .build();
+            } else if (article.getGenerationStatus() == ArticleGenerationStatus.COMPLETE) {
+                throw new RuntimeException("Article already exists for this keyword");
+            }
+            ArticleGenerationStatus previousStatus = article.getId() != null ? article.getGenerationStatus() : null;
+            article.setGenerationStatus(ArticleGenerationStatus.GENERATING);
+            return new StartedArticle(articleRepository.save(article).getId(), previousStatus);
+        });
+    }
+
+    private void flush(Long articleId, PotentialKeyword keyword, ArticleStreamAssembler assembler,
+                       ArticleGenerationStatus generationStatus) {
+        String content = assembler.getContent();
+        String title = assembler.getTitle() != null && !assembler.getTitle().isBlank()
+                ? assembler.getTitle() : fallbackTitle(keyword);
+        transactionTemplate.executeWithoutResult(status -> articleRepository.updateGeneratedContent(
+                articleId,
+                truncate(title),
+                truncate(assembler.getMetaDescription()),
+                content,
+                content.isEmpty() ? 0 : Article.countWords(content),
+                generationStatus));
+    }
+
+    /**
+     * Saves the article and flips the keyword to WRITTEN in one short transaction.
+     * The keyword is updated by query rather than merged, because it was loaded in an earlier transaction.
+     */
+    private Article saveCompleteArticle(PotentialKeyword keyword, Niche niche, ArticleContent content) {
+        return transactionTemplate.execute(status -> {
+            markWritten(keyword, niche);
+
+            // A partial article from an earlier streamed attempt is replaced
+            Article article = articleRepository.findByKeywordId(keyword.getId())
+                    .orElseGet(() -> Article.builder()
+                            .keyword(keyword)
+                            .niche(niche)
+                            .build());
+            article.setTitle(content.getTitle());
+            article.setMetaDescription(content.getMetaDescription());
+            article.setContent(content.getContent());
+            article.setGenerationStatus(ArticleGenerationStatus.COMPLETE);
+            // Unfinished articles are not counted, so a replaced partial one is counted now too
+            nicheCounterService.recordArticlesAdded(niche.getId(), 1);
+
+            return articleRepository.save(article);
+        });
+    }
+
+    /**
+     * Flips the keyword to WRITTEN; must run inside the transaction that completes the article
+     */
+    private void markWritten(PotentialKeyword keyword, Niche niche) {
+        KeywordStatus previousStatus = keywordRepository.findStatusById(keyword.getId())
+                .orElseThrow(() -> new RuntimeException("Keyword not found: " + keyword.getId()));
+        if (keywordRepository.markWritten(keyword.getId(), LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Article already exists for this keyword");
+        }
+        nicheCounterService.recordKeywordWritten(niche.getId(), previousStatus);
+    }
+
+    /**
+     * Undoes startArticle when the stream produced nothing: a new row is deleted, a reused
+     * one gets its earlier status back and still holds the content of the earlier attempt
+     */
+    private void abandonArticle(StartedArticle started) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (started.previousStatus() != null) {
+                articleRepository.updateGenerationStatus(started.id(), started.previousStatus());
+            } else {
+                articleRepository.deleteById(started.id());
+            }
+        });
+    }
+
+    private Article indexArticle(Article article, Niche niche, PotentialKeyword keyword) {
+        contentSimilarityService.onArticleSaved(niche.getId(), article.getId(), article.getTitle(), keyword.getKeywordText());
+        return article;
+    }
+
+    private Article loadArticle(Long articleId) {
+        return articleRepository.findById(articleId)
+                .orElseThrow(() -> new RuntimeException("Article not found: " + articleId));
+    }
+
+    private String fallbackTitle(PotentialKeyword keyword) {
+        return truncate("Guide to " + keyword.getKeywordText());
+    }
+
+    private String truncate(String value) {
+        return value != null && value.length() > MAX_HEADER_LENGTH ? value.substring(0, MAX_HEADER_LENGTH) : value;
+    }
+
+    // previousStatus is null when the row was created for this attempt
+    private record StartedArticle(Long id, ArticleGenerationStatus previousStatus) {
+    }
+}
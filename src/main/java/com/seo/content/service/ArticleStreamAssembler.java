@@ -0,0 +1,100 @@
+package com.seo.content.service;
+
+/**
+ * Builds an article from streamed text in the TITLE / META / --- / body format.
+ * Header lines are parsed once the separator arrives; everything after it is body.
+ */
+class ArticleStreamAssembler {
+
+    private static final String SEPARATOR = "\n---";
+    // If no separator shows up by then the model ignored the format and it is all body
+    private static final int MAX_HEADER_CHARS = 2000;
+
+    private final StringBuilder header = new StringBuilder();
+    private final StringBuilder body = new StringBuilder();
+    private boolean inBody;
+    private String title;
+    private String metaDescription;
+
+    void append(String delta) {
+        if (inBody) {
+            body.append(delta);
+            return;
+        }
+
+        header.append(delta);
+        int separator = header.indexOf(SEPARATOR);
+        if (separator >= 0) {
+            int lineEnd = header.indexOf("\n", separator + SEPARATOR.length());
+            if (lineEnd < 0) {
+                return;
+            }
+            parseHeader(header.substring(0, separator));
+            body.append(header.substring(lineEnd + 1));
+            inBody = true;
+        } else if (header.length() > MAX_HEADER_CHARS) {
+            body.append(parseHeader(header.toString()));
+            inBody = true;
+        }
+    }
+
+    /**
+     * Called once the stream has ended, in case it was too short to reach the separator
+     */
+    void finish() {
+        if (!inBody) {
+            body.append(parseHeader(header.toString()));
+            inBody = true;
+        }
+    }
+
+    boolean hasContent() {
+        return !getContent().isBlank();
+    }
+
+    int getContentLength() {
+        return body.length();
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    String getMetaDescription() {
+        return metaDescription;
+    }
+
+    String getContent() {
+        String content = body.toString().strip();
+        if (content.startsWith("```")) {
+            int firstLineEnd = content.indexOf('\n');
+            content = firstLineEnd < 0 ? "" : content.substring(firstLineEnd + 1);
+        }
+        if (content.endsWith("```")) {
+            content = content.substring(0, content.length() - 3);
+        }
+        return content.strip();
+    }
+
+    /**
+     * Picks up the TITLE and META lines and returns whatever else was in the text
+     */
+    private String parseHeader(String text) {
+        StringBuilder rest = new StringBuilder();
+        for (String line : text.split("\n", -1)) {
+            String trimmed = line.strip();
+            if (title == null && startsWithIgnoreCase(trimmed, "TITLE:")) {
+                title = trimmed.substring("TITLE:".length()).strip();
+            } else if (metaDescription == null && startsWithIgnoreCase(trimmed, "META:")) {
+                metaDescription = trimmed.substring("META:".length()).strip();
+            } else {
+                rest.append(line).append('\n');
+            }
+        }
+        return rest.toString();
+    }
+
+    private static boolean startsWithIgnoreCase(String text, String prefix) {
+        return text.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+}
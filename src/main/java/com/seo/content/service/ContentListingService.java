@@ -0,0 +1,171 @@
+package com.seo.content.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seo.content.dto.ArticleDetail;
+import com.seo.content.dto.ArticleSummary;
+import com.seo.content.dto.CursorPage;
+import com.seo.content.dto.KeywordSummary;
+import com.seo.content.model.ArticleGenerationStatus;
+import com.seo.content.model.KeywordStatus;
+import com.seo.content.repository.ArticleRepository;
+import com.seo.content.repository.PotentialKeywordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset-paginated listings of keywords and articles. Rows are selected as DTO
+ * projections, never as entities, so no article content or lazy association is loaded.
+ * Cursors are opaque to clients and encode the sort key of the last row returned.
+ */
+@Service
+public class ContentListingService {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final PotentialKeywordRepository keywordRepository;
+    private final ArticleRepository articleRepository;
+    private final ObjectMapper objectMapper;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public ContentListingService(
+            PotentialKeywordRepository keywordRepository,
+            ArticleRepository articleRepository,
+            ObjectMapper objectMapper,
+            @Value("${api.page.default-limit:50}") int defaultLimit,
+            @Value("${api.page.max-limit:200}") int maxLimit) {
+        this.keywordRepository = keywordRepository;
+        this.articleRepository = articleRepository;
+        this.objectMapper = objectMapper;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public CursorPage<?> listKeywords(Long nicheId, KeywordStatus status, Integer depth,
+                                      String cursor, Integer limit, String fields) {
+        int pageSize = pageSize(limit);
+        long afterId = cursor == null ? 0L : Long.parseLong(decode(cursor));
+        List<KeywordSummary> rows = keywordRepository.findKeywordSummaries(
+                nicheId, status, depth, afterId, Limit.of(pageSize + 1));
+        return page(rows, pageSize, last -> String.valueOf(last.getId()), KeywordSummary.class, fields);
+    }
+
+    public CursorPage<?> listUnwrittenKeywords(Long nicheId, String cursor, Integer limit, String fields) {
+        int pageSize = pageSize(limit);
+        double afterScore = Double.MAX_VALUE;
+        long afterId = 0L;
+        if (cursor != null) {
+            String[] parts = decode(cursor).split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            afterScore = Double.parseDouble(parts[0]);
+            afterId = Long.parseLong(parts[1]);
+        }
+        List<KeywordSummary> rows = keywordRepository.findUnwrittenKeywordSummaries(
+                nicheId, afterScore, afterId, Limit.of(pageSize + 1));
+        return page(rows, pageSize, last -> last.getQualificationScore() + ":" + last.getId(),
+                KeywordSummary.class, fields);
+    }
+
+    /**
+     * Lists COMPLETE articles unless another generation status is asked for
+     */
+    public CursorPage<?> listArticles(Long nicheId, ArticleGenerationStatus status, String cursor,
+                                      Integer limit, String fields) {
+        int pageSize = pageSize(limit);
+        long beforeId = cursor == null ? Long.MAX_VALUE : Long.parseLong(decode(cursor));
+        List<ArticleSummary> rows = articleRepository.findArticleSummaries(
+                nicheId, status != null ? status : ArticleGenerationStatus.COMPLETE, beforeId, Limit.of(pageSize + 1));
+        return page(rows, pageSize, last -> String.valueOf(last.getId()), ArticleSummary.class, fields);
+    }
+
+    public Optional<ArticleDetail> getArticle(Long articleId) {
+        return articleRepository.findArticleDetail(articleId);
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * Trims the look-ahead row, builds the next cursor and applies the field selection
+     */
+    private <T> CursorPage<?> page(List<T> rows, int pageSize, Function<T, String> cursorOf,
+                                   Class<T> type, String fields) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encode(cursorOf.apply(items.get(items.size() - 1))) : null;
+
+        if (fields == null || fields.isBlank()) {
+            return new CursorPage<>(items, nextCursor, hasMore, pageSize);
+        }
+
+        Set<String> selected = selectedFields(type, fields);
+        List<Map<String, Object>> projected = items.stream()
+                .map(item -> {
+                    Map<String, Object> values = objectMapper.convertValue(item, MAP_TYPE);
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    values.forEach((name, value) -> {
+                        if (selected.contains(name)) {
+                            result.put(name, value);
+                        }
+                    });
+                    return result;
+                })
+                .collect(Collectors.toList());
+        return new CursorPage<>(projected, nextCursor, hasMore, pageSize);
+    }
+
+    private Set<String> selectedFields(Class<?> type, String fields) {
+        Set<String> available = Arrays.stream(type.getDeclaredFields())
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+        // The id is always returned so rows stay addressable
+        Set<String> selected = new LinkedHashSet<>(List.of("id"));
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!available.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    private String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
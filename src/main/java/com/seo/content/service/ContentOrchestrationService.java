@@ -1,18 +1,33 @@
 package com.seo.content.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seo.content.dto.DiscoveredKeyword;
 import com.seo.content.dto.KeywordExplorationResponse;
+import com.seo.content.dto.KeywordUpsertResult;
 import com.seo.content.dto.LLMDto.*;
+import com.seo.content.dto.WorkflowContext;
+import com.seo.content.index.KeywordCluster;
+import com.seo.content.index.KeywordClusterer;
+import com.seo.content.index.KeywordTreeIndex;
+import com.seo.content.index.KeywordTreeNode;
 import com.seo.content.model.*;
 import com.seo.content.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,202 +37,158 @@ public class ContentOrchestrationService {
     
     private final LLMService llmService;
     private final KeywordDiscoveryService keywordDiscoveryService;
+    private final KeywordQualificationPipeline qualificationPipeline;
     private final NicheRepository nicheRepository;
     private final PotentialKeywordRepository keywordRepository;
-    private final ArticleRepository articleRepository;
+    private final KeywordVariantRepository keywordVariantRepository;
+    private final KeywordBulkRepository keywordBulkRepository;
+    private final KeywordClusterer keywordClusterer;
+    private final KeywordTreeIndex keywordTreeIndex;
+    private final ArticleGenerationService articleGenerationService;
+    private final ContentSimilarityService contentSimilarityService;
+    private final NicheCounterService nicheCounterService;
     private final ExplorationLogRepository explorationLogRepository;
+    private final WorkflowRunRepository workflowRunRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${workflow.resume-window-hours:24}")
+    private long resumeWindowHours;
+    
+    @Value("${workflow.max-attempts:3}")
+    private int maxAttempts;
+    
+    @Value("${workflow.stale-run-minutes:120}")
+    private long staleRunMinutes;
+    
+    @Value("${keywords.ingest.conflict-policy:SKIP}")
+    private KeywordConflictPolicy conflictPolicy;
+    
+    @Value("${keywords.tree.frontier-size:20}")
+    private int frontierSize;
     
     /**
-     * Main daily workflow execution
+     * Main daily workflow execution.
+     * Runs as a sequence of stages; each stage opens its own short transaction for
+     * its database work, so no connection is held during LLM or suggest calls.
+     * A recent failed run for the niche is resumed instead of starting over.
      */
-    @Transactional
-    public void executeDailyWorkflow(Long nicheId) {
-        long startTime = System.currentTimeMillis();
+    public WorkflowRun executeDailyWorkflow(Long nicheId) {
+        return executeDailyWorkflow(nicheId, WorkflowProgressListener.NONE);
+    }
+    
+    public WorkflowRun executeDailyWorkflow(Long nicheId, WorkflowProgressListener listener) {
+        Optional<WorkflowRun> resumable = findResumableRun(nicheId);
+        if (resumable.isPresent()) {
+            log.info("Resuming workflow run {} for niche ID: {}", resumable.get().getId(), nicheId);
+            return resumeWorkflow(resumable.get().getId(), listener);
+        }
+        
+        // Load niche
+        Niche niche = nicheRepository.findById(nicheId)
+                .orElseThrow(() -> new RuntimeException("Niche not found: " + nicheId));
+        
+        WorkflowContext context = WorkflowContext.builder()
+                .nicheId(nicheId)
+                .startTimeMillis(System.currentTimeMillis())
+                .build();
         
-        log.info("=== Starting Daily SEO Content Workflow for Niche ID: {} ===", nicheId);
+        WorkflowRun run = workflowRunRepository.save(WorkflowRun.builder()
+                .nicheId(nicheId)
+                .contextJson(writeContext(context))
+                .build());
+        
+        return executeRun(run, context, niche, listener);
+    }
+    
+    /**
+     * Continues a failed (or abandoned) run from the stage after its last checkpoint
+     */
+    public WorkflowRun resumeWorkflow(Long runId) {
+        return resumeWorkflow(runId, WorkflowProgressListener.NONE);
+    }
+    
+    public WorkflowRun resumeWorkflow(Long runId, WorkflowProgressListener listener) {
+        WorkflowRun run = workflowRunRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Workflow run not found: " + runId));
+        
+        if (run.getStatus() == WorkflowRunStatus.COMPLETED) {
+            throw new RuntimeException("Workflow run already completed: " + runId);
+        }
+        
+        Niche niche = nicheRepository.findById(run.getNicheId())
+                .orElseThrow(() -> new RuntimeException("Niche not found: " + run.getNicheId()));
+        
+        // Conditional update, so the scheduler and a REST resume cannot both execute the run
+        LocalDateTime now = LocalDateTime.now();
+        if (workflowRunRepository.claimForResume(runId, now.minusMinutes(staleRunMinutes), now) != 1) {
+            throw new RuntimeException("Workflow run is still running: " + runId);
+        }
+        WorkflowRun claimed = workflowRunRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Workflow run not found: " + runId));
+        WorkflowContext context = readContext(claimed.getContextJson());
+        
+        log.info("Resuming workflow run {} (attempt {}) after stage {}",
+                runId, claimed.getAttempts(), claimed.getLastCompletedStage());
+        return executeRun(claimed, context, niche, listener);
+    }
+    
+    public Optional<WorkflowRun> getWorkflowRun(Long runId) {
+        return workflowRunRepository.findById(runId);
+    }
+    
+    public List<WorkflowRun> getRecentWorkflowRuns(Long nicheId) {
+        return workflowRunRepository.findTop20ByNicheIdOrderByStartedDateDesc(nicheId);
+    }
+    
+    private WorkflowRun executeRun(
+            WorkflowRun run, WorkflowContext context, Niche niche, WorkflowProgressListener listener) {
+        log.info("=== Starting Daily SEO Content Workflow for Niche ID: {} (run {}) ===", niche.getId(), run.getId());
+        long attemptStart = System.currentTimeMillis();
+        listener.onRunStarted(run.getId());
         
         try {
-            // Load niche
-            Niche niche = nicheRepository.findById(nicheId)
-                    .orElseThrow(() -> new RuntimeException("Niche not found: " + nicheId));
-            
-            // Initialize metrics
-            int keywordsDiscovered = 0;
-            int keywordsQualified = 0;
-            int articlesGenerated = 0;
-            
-            // Step 1: Decide exploration strategy
-            log.info("Step 1: Deciding exploration strategy...");
-            List<PotentialKeyword> existingKeywords = keywordRepository.findByNiche(niche);
-            ExplorationStrategyResponse strategy = llmService.decideExplorationStrategy(niche, existingKeywords);
-            log.info("Strategy: {} - Target depth: {}", strategy.getStrategy(), strategy.getTargetDepthLevel());
-            
-            // Step 2: Discover new keywords
-            log.info("Step 2: Discovering keywords...");
-            List<String> seedKeywords = strategy.getSeedKeywordsToExplore();
-            if (seedKeywords == null || seedKeywords.isEmpty()) {
-                seedKeywords = niche.getSeedKeywordsAsList();
-            }
-            
-            List<String> discoveredSuggestions = keywordDiscoveryService.discoverKeywordsFromSeeds(
-                    seedKeywords, 
-                    strategy.getTargetDepthLevel()
-            );
-            
-            // Filter out existing keywords
-            List<String> newSuggestions = keywordDiscoveryService.filterNewKeywords(discoveredSuggestions, niche);
-            keywordsDiscovered = newSuggestions.size();
-            log.info("Discovered {} new keyword suggestions", keywordsDiscovered);
-            
-            // Step 3: Qualify keywords with LLM
-            if (!newSuggestions.isEmpty()) {
-                log.info("Step 3: Qualifying keywords with LLM...");
-                
-                // Process in batches of 20
-                List<PotentialKeyword> qualifiedKeywords = new ArrayList<>();
-                
-                for (int i = 0; i < newSuggestions.size(); i += 20) {
-                    int end = Math.min(i + 20, newSuggestions.size());
-                    List<String> batch = newSuggestions.subList(i, end);
-                    
-                    List<KeywordQualification> qualifications = llmService.qualifyKeywords(
-                            batch, niche, existingKeywords
-                    );
-                    
-                    // Save qualified keywords
-                    for (KeywordQualification qual : qualifications) {
-                        if (qual.getRelevant() && !qual.getOverlapsExisting()) {
-                            PotentialKeyword keyword = createPotentialKeyword(
-                                    qual, niche, strategy.getTargetDepthLevel(), seedKeywords
-                            );
-                            qualifiedKeywords.add(keyword);
-                            
-                            if (keyword.isQualified()) {
-                                keywordsQualified++;
-                            }
-                        }
-                    }
-                    
-                    // Rate limiting
-                    if (end < newSuggestions.size()) {
-                        Thread.sleep(1000);
-                    }
-                }
-                
-                keywordRepository.saveAll(qualifiedKeywords);
-                log.info("Saved {} qualified keywords", keywordsQualified);
-            }
-            
-            // Step 4: Select and generate article
-            log.info("Step 4: Selecting keyword for article generation...");
-            List<PotentialKeyword> unwrittenKeywords = keywordRepository.findUnwrittenQualifiedKeywords(niche);
-            
-            if (!unwrittenKeywords.isEmpty()) {
-                KeywordSelectionResponse selection = llmService.selectBestKeywordForArticle(
-                        unwrittenKeywords.subList(0, Math.min(20, unwrittenKeywords.size())), 
-                        niche
-                );
-                
-                log.info("Selected keyword: {} - {}", selection.getSelectedKeyword(), selection.getReasoning());
-                
-                // Find the selected keyword
-                Optional<PotentialKeyword> selectedKeywordOpt = unwrittenKeywords.stream()
-                        .filter(kw -> kw.getKeywordText().equals(selection.getSelectedKeyword()))
-                        .findFirst();
-                
-                if (selectedKeywordOpt.isPresent()) {
-                    PotentialKeyword selectedKeyword = selectedKeywordOpt.get();
-                    
-                    // Step 5: Check similarity
-                    log.info("Step 5: Checking content similarity...");
-                    List<Article> existingArticles = articleRepository.findByNicheWithKeywords(niche);
-                    SimilarityCheckResponse similarity = llmService.checkContentSimilarity(
-                            selectedKeyword.getKeywordText(), 
-                            existingArticles
-                    );
-                    
-                    if (!similarity.getSimilar() || similarity.getSimilarityScore() < 0.7) {
-                        // Step 6: Generate article
-                        log.info("Step 6: Generating article...");
-                        ArticleContent content = llmService.generateArticle(selectedKeyword, niche);
-                        
-                        // Save article
-                        Article article = Article.builder()
-                                .keyword(selectedKeyword)
-                                .niche(niche)
-                                .title(content.getTitle())
-                                .metaDescription(content.getMetaDescription())
-                                .content(content.getContent())
-                                .build();
-                        
-                        articleRepository.save(article);
-                        
-                        // Update keyword status
-                        selectedKeyword.setStatus(KeywordStatus.WRITTEN);
-                        selectedKeyword.setWrittenDate(LocalDateTime.now());
-                        keywordRepository.save(selectedKeyword);
-                        
-                        articlesGenerated = 1;
-                        log.info("Article generated successfully: {}", content.getTitle());
-                    } else {
-                        log.info("Skipping article - too similar to existing content");
-                    }
-                } else {
-                    log.warn("Selected keyword not found in unwritten list");
-                }
-            } else {
-                log.info("No qualified unwritten keywords available for article generation");
-            }
-            
-            // Step 7: Generate daily summary
-            log.info("Step 7: Generating daily summary...");
-            List<PotentialKeyword> recentKeywords = keywordRepository.findByNiche(niche).stream()
-                    .sorted((a, b) -> b.getDiscoveredDate().compareTo(a.getDiscoveredDate()))
-                    .limit(10)
-                    .collect(Collectors.toList());
-            
-            DailySummary summary = llmService.generateDailySummary(
-                    keywordsDiscovered, keywordsQualified, articlesGenerated, niche, recentKeywords
-            );
+            run = runStage(WorkflowStage.STRATEGY, run, context, listener, () -> decideStrategy(context, niche));
+            run = runStage(WorkflowStage.DISCOVERY, run, context, listener, () -> discoverKeywords(context, niche));
+            WorkflowRun qualifyingRun = run;
+            run = runStage(WorkflowStage.QUALIFICATION, run, context, listener,
+                    () -> qualifyKeywords(qualifyingRun, context, niche, listener));
+            run = runStage(WorkflowStage.SELECTION, run, context, listener, () -> selectKeyword(context, niche));
+            run = runStage(WorkflowStage.SIMILARITY, run, context, listener, () -> checkSimilarity(context, niche));
+            run = runStage(WorkflowStage.GENERATION, run, context, listener, () -> generateArticle(context, niche, listener));
+            run = runStage(WorkflowStage.SUMMARY, run, context, listener, () -> summarize(context, niche));
             
-            // Save exploration log
-            Integer maxDepth = keywordRepository.findMaxDepthLevelByNiche(niche);
-            long duration = System.currentTimeMillis() - startTime;
-            
-            ExplorationLog explorationLog = ExplorationLog.builder()
-                    .niche(niche)
-                    .executionDate(LocalDateTime.now())
-                    .explorationStrategy(strategy.getStrategy() + " - " + strategy.getReasoning())
-                    .currentMaxDepthLevel(maxDepth != null ? maxDepth : 0)
-                    .keywordsDiscovered(keywordsDiscovered)
-                    .keywordsQualified(keywordsQualified)
-                    .articlesGenerated(articlesGenerated)
-                    .llmNotes(summary.getSummary() + "\n\nNext steps: " + summary.getNextSteps())
-                    .executionDurationMs(duration)
-                    .success(true)
-                    .build();
-            
-            explorationLogRepository.save(explorationLog);
+            context.setStage(WorkflowStage.COMPLETED);
+            run.setStatus(WorkflowRunStatus.COMPLETED);
+            run.setCurrentStage(WorkflowStage.COMPLETED);
+            run.setCompletedDate(LocalDateTime.now());
+            run.setContextJson(writeContext(context));
+            run = workflowRunRepository.save(run);
             
             log.info("=== Daily Workflow Completed Successfully ===");
-            log.info("Duration: {}ms", duration);
-            log.info("Keywords discovered: {}", keywordsDiscovered);
-            log.info("Keywords qualified: {}", keywordsQualified);
-            log.info("Articles generated: {}", articlesGenerated);
+            log.info("Duration: {}ms", System.currentTimeMillis() - attemptStart);
+            log.info("Keywords discovered: {}", context.getKeywordsDiscovered());
+            log.info("Keywords qualified: {}", context.getKeywordsQualified());
+            log.info("Articles generated: {}", context.getArticlesGenerated());
+            
+            return run;
             
         } catch (Exception e) {
-            log.error("Error in daily workflow execution", e);
+            log.error("Error in daily workflow execution (run {}, stage {})", run.getId(), context.getStage(), e);
+            
+            // Keep the last committed checkpoint; only the status and error change
+            workflowRunRepository.markFailed(run.getId(), e.getMessage(), LocalDateTime.now());
             
             // Save error log
             ExplorationLog errorLog = ExplorationLog.builder()
-                    .niche(nicheRepository.findById(nicheId).orElse(null))
+                    .niche(niche)
                     .executionDate(LocalDateTime.now())
                     .explorationStrategy("ERROR")
                     .keywordsDiscovered(0)
                     .keywordsQualified(0)
                     .articlesGenerated(0)
-                    .llmNotes("Workflow failed")
-                    .executionDurationMs(System.currentTimeMillis() - startTime)
+                    .llmNotes("Workflow failed at stage " + context.getStage() + " (run " + run.getId() + ")")
+                    .executionDurationMs(System.currentTimeMillis() - attemptStart)
                     .success(false)
                     .errorMessage(e.getMessage())
                     .build();
@@ -229,61 +200,355 @@ public class ContentOrchestrationService {
     }
     
     /**
- * Manually trigger keyword exploration without article generation
- */
-@Transactional
-public KeywordExplorationResponse exploreKeywordsOnly(Long nicheId, List<String> seedKeywords, int depth) {
-    Niche niche = nicheRepository.findById(nicheId)
-            .orElseThrow(() -> new RuntimeException("Niche not found"));
+     * Runs one stage unless an earlier attempt already completed it, then checkpoints the context
+     */
+    private WorkflowRun runStage(
+            WorkflowStage stage,
+            WorkflowRun run,
+            WorkflowContext context,
+            WorkflowProgressListener listener,
+            Runnable body) {
+        if (run.getLastCompletedStage() != null && stage.compareTo(run.getLastCompletedStage()) <= 0) {
+            log.info("Stage {}: already completed in run {}, skipping", stage, run.getId());
+            return run;
+        }
+        
+        context.setStage(stage);
+        run.setCurrentStage(stage);
+        long stageStart = System.currentTimeMillis();
+        log.info("Stage {}: started", stage);
+        listener.onStageStarted(stage, context);
+        body.run();
+        
+        run.setLastCompletedStage(stage);
+        run.setContextJson(writeContext(context));
+        WorkflowRun saved = workflowRunRepository.save(run);
+        log.info("Stage {}: finished in {} ms", stage, System.currentTimeMillis() - stageStart);
+        listener.onStageCompleted(stage, context);
+        return saved;
+    }
     
-    log.info("Manual keyword exploration for: {}", niche.getNicheName());
+    private Optional<WorkflowRun> findResumableRun(Long nicheId) {
+        LocalDateTime windowStart = LocalDateTime.now().minusHours(resumeWindowHours);
+        return workflowRunRepository.findFirstByNicheIdOrderByStartedDateDesc(nicheId)
+                .filter(run -> run.getStartedDate().isAfter(windowStart))
+                .filter(run -> run.getAttempts() < maxAttempts)
+                .filter(run -> run.getStatus() == WorkflowRunStatus.FAILED
+                        || (run.getStatus() == WorkflowRunStatus.RUNNING && isStale(run)));
+    }
     
-    List<String> suggestions = keywordDiscoveryService.discoverKeywordsFromSeeds(seedKeywords, depth);
-    List<String> newSuggestions = keywordDiscoveryService.filterNewKeywords(suggestions, niche);
+    /**
+     * A RUNNING run that has not checkpointed for a while belongs to a process that died
+     */
+    private boolean isStale(WorkflowRun run) {
+        return run.getUpdatedDate().isBefore(LocalDateTime.now().minusMinutes(staleRunMinutes));
+    }
     
-    List<PotentialKeyword> existingKeywords = keywordRepository.findByNiche(niche);
+    private String writeContext(WorkflowContext context) {
+        try {
+            return objectMapper.writeValueAsString(context);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize workflow context", e);
+        }
+    }
     
-    // Qualify in batches
-    List<PotentialKeyword> qualifiedKeywords = new ArrayList<>();
-    int qualifiedCount = 0;
+    private WorkflowContext readContext(String json) {
+        try {
+            return objectMapper.readValue(json, WorkflowContext.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read workflow checkpoint", e);
+        }
+    }
     
-    for (int i = 0; i < newSuggestions.size(); i += 20) {
-        int end = Math.min(i + 20, newSuggestions.size());
-        List<String> batch = newSuggestions.subList(i, end);
+    /**
+     * Stage 1: ask the LLM for today's exploration strategy
+     */
+    private void decideStrategy(WorkflowContext context, Niche niche) {
+        List<PotentialKeyword> existingKeywords = keywordRepository.findByNiche(niche);
+        List<KeywordTreeNode> frontier = keywordTreeIndex.frontier(niche.getId(), frontierSize);
+        ExplorationStrategyResponse strategy = llmService.decideExplorationStrategy(niche, existingKeywords, frontier);
+        log.info("Strategy: {} - Target depth: {}", strategy.getStrategy(), strategy.getTargetDepthLevel());
+        
+        List<String> seedKeywords = strategy.getSeedKeywordsToExplore();
+        if (seedKeywords == null || seedKeywords.isEmpty()) {
+            seedKeywords = niche.getSeedKeywordsAsList();
+        }
         
-        List<KeywordQualification> qualifications = llmService.qualifyKeywords(
-                batch, niche, existingKeywords
+        context.setStrategy(strategy);
+        context.setSeedKeywords(seedKeywords);
+        context.setTargetDepth(strategy.getTargetDepthLevel() != null ? strategy.getTargetDepthLevel() : 1);
+    }
+    
+    /**
+     * Stage 2: expand the seeds through suggest and drop keywords we already have
+     */
+    private void discoverKeywords(WorkflowContext context, Niche niche) {
+        List<DiscoveredKeyword> discovered = keywordDiscoveryService.discoverKeywordsWithProvenance(
+                context.getSeedKeywords(),
+                context.getTargetDepth()
         );
         
-        for (KeywordQualification qual : qualifications) {
-            if (qual.getRelevant() && !qual.getOverlapsExisting()) {
-                PotentialKeyword keyword = createPotentialKeyword(qual, niche, depth, seedKeywords);
-                qualifiedKeywords.add(keyword);
-                
-                if (keyword.isQualified()) {
-                    qualifiedCount++;
-                }
+        List<String> newSuggestions = keywordDiscoveryService.filterNewKeywords(suggestionTexts(discovered), niche);
+        context.setKeywordsDiscovered(newSuggestions.size());
+        clusterSuggestions(context, newSuggestions, discovered);
+        log.info("Discovered {} new keyword suggestions, {} to qualify after clustering",
+                newSuggestions.size(), context.getNewSuggestions().size());
+    }
+    
+    /**
+     * Folds near-duplicate suggestions together so only one per cluster is sent to the LLM,
+     * and records the seed each representative was discovered from
+     */
+    private void clusterSuggestions(WorkflowContext context, List<String> newSuggestions,
+                                    List<DiscoveredKeyword> discovered) {
+        Map<String, String> seedByText = new HashMap<>();
+        discovered.forEach(keyword -> seedByText.put(keyword.getKeywordText(), keyword.getSeedKeyword()));
+        
+        List<String> representatives = new ArrayList<>();
+        Map<String, List<String>> variants = new HashMap<>();
+        Map<String, String> suggestionSeeds = new HashMap<>();
+        for (KeywordCluster cluster : keywordClusterer.cluster(newSuggestions)) {
+            representatives.add(cluster.representative());
+            if (!cluster.variants().isEmpty()) {
+                variants.put(keywordKey(cluster.representative()), cluster.variants());
+            }
+            String seed = seedByText.get(cluster.representative());
+            if (seed != null) {
+                suggestionSeeds.put(cluster.representative(), seed);
             }
         }
+        context.setNewSuggestions(representatives);
+        context.setKeywordVariants(variants);
+        context.setSuggestionSeeds(suggestionSeeds);
+    }
+    
+    /**
+     * Lookup key for a keyword the LLM may echo back with different casing or spacing
+     */
+    private static String keywordKey(String keywordText) {
+        return keywordText.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private List<String> suggestionTexts(List<DiscoveredKeyword> discovered) {
+        return discovered.stream()
+                .map(DiscoveredKeyword::getKeywordText)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Stage 3: qualify new suggestions with the LLM. Every batch is saved together with a
+     * checkpoint of how many suggestions are done, so a resumed run skips them.
+     */
+    private void qualifyKeywords(
+            WorkflowRun run, WorkflowContext context, Niche niche, WorkflowProgressListener listener) {
+        List<String> suggestions = context.getNewSuggestions();
+        int alreadyProcessed = Math.min(context.getSuggestionsProcessed(), suggestions.size());
+        List<String> remaining = suggestions.subList(alreadyProcessed, suggestions.size());
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (alreadyProcessed > 0) {
+            log.info("Resuming qualification after {} of {} suggestions", alreadyProcessed, suggestions.size());
+        }
+        
+        int savedBefore = context.getKeywordsSaved();
+        int qualifiedBefore = context.getKeywordsQualified();
+        int skippedBefore = context.getKeywordsSkipped();
+        int mergedBefore = context.getKeywordsMerged();
+        
+        List<PotentialKeyword> existingKeywords = keywordRepository.findByNiche(niche);
+        QualificationTotals totals = qualifyAndPersist(
+                remaining, context.getKeywordVariants(), niche, existingKeywords,
+                context.getTargetDepth(), context.getSeedKeywords(), context.getSuggestionSeeds(),
+                progress -> {
+                    context.setSuggestionsProcessed(alreadyProcessed + progress.processed());
+                    context.setKeywordsSaved(savedBefore + progress.saved());
+                    context.setKeywordsQualified(qualifiedBefore + progress.qualified());
+                    context.setKeywordsSkipped(skippedBefore + progress.skipped());
+                    context.setKeywordsMerged(mergedBefore + progress.merged());
+                    run.setContextJson(writeContext(context));
+                    workflowRunRepository.save(run);
+                },
+                progress -> listener.onProgress(context)
+        );
+        log.info("Saved {} qualified keywords ({} merged, {} already stored)",
+                totals.qualified(), totals.merged(), totals.skipped());
+    }
+    
+    /**
+     * Stage 4: let the LLM pick the next keyword to write about
+     */
+    private void selectKeyword(WorkflowContext context, Niche niche) {
+        List<PotentialKeyword> unwrittenKeywords = keywordRepository.findUnwrittenQualifiedKeywords(niche);
+        
+        if (unwrittenKeywords.isEmpty()) {
+            log.info("No qualified unwritten keywords available for article generation");
+            return;
+        }
+        
+        KeywordSelectionResponse selection = llmService.selectBestKeywordForArticle(
+                unwrittenKeywords.subList(0, Math.min(20, unwrittenKeywords.size())), 
+                niche
+        );
+        
+        log.info("Selected keyword: {} - {}", selection.getSelectedKeyword(), selection.getReasoning());
+        
+        Optional<PotentialKeyword> selectedKeywordOpt = unwrittenKeywords.stream()
+                .filter(kw -> kw.getKeywordText().equals(selection.getSelectedKeyword()))
+                .findFirst();
+        
+        if (selectedKeywordOpt.isPresent()) {
+            context.setSelectedKeywordId(selectedKeywordOpt.get().getId());
+            context.setSelectedKeywordText(selectedKeywordOpt.get().getKeywordText());
+        } else {
+            log.warn("Selected keyword not found in unwritten list");
+        }
+    }
+    
+    /**
+     * Stage 5: make sure the selected keyword does not duplicate an existing article
+     */
+    private void checkSimilarity(WorkflowContext context, Niche niche) {
+        if (context.getSelectedKeywordId() == null) {
+            return;
+        }
+        
+        SimilarityCheckResponse similarity = contentSimilarityService.checkSimilarity(
+                context.getSelectedKeywordText(), niche);
+        
+        context.setTooSimilar(isTooSimilar(similarity));
+        if (context.isTooSimilar()) {
+            log.info("Skipping article - too similar to existing content");
+        }
     }
     
-    List<PotentialKeyword> saved = keywordRepository.saveAll(qualifiedKeywords);
-    log.info("Saved {} qualified keywords from manual exploration", saved.size());
+    /**
+     * Stage 6: generate the article and store it; the keyword is marked written once it is complete
+     */
+    private void generateArticle(WorkflowContext context, Niche niche, WorkflowProgressListener listener) {
+        if (context.getSelectedKeywordId() == null || context.isTooSimilar()) {
+            return;
+        }
+        
+        PotentialKeyword selectedKeyword = keywordRepository.findById(context.getSelectedKeywordId())
+                .orElseThrow(() -> new RuntimeException("Keyword not found: " + context.getSelectedKeywordId()));
+        if (selectedKeyword.getStatus() == KeywordStatus.WRITTEN) {
+            // Saved by an earlier attempt that failed before its checkpoint
+            log.info("Article for '{}' already exists, skipping generation", selectedKeyword.getKeywordText());
+            context.setArticlesGenerated(1);
+            return;
+        }
+        Article article = articleGenerationService.generate(selectedKeyword, niche, characters -> {
+            context.setArticleCharacters(characters);
+            listener.onProgress(context);
+        });
+        
+        context.setArticleId(article.getId());
+        context.setArticleTitle(article.getTitle());
+        context.setArticleStatus(article.getGenerationStatus());
+        if (article.getGenerationStatus() != ArticleGenerationStatus.COMPLETE) {
+            log.warn("Article stored as {} for '{}': {}", article.getGenerationStatus(),
+                    selectedKeyword.getKeywordText(), article.getTitle());
+            return;
+        }
+        context.setArticlesGenerated(1);
+        log.info("Article generated successfully: {}", article.getTitle());
+    }
+    
+    /**
+     * Stage 7: summarize the run with the LLM and record it in the exploration log
+     */
+    private void summarize(WorkflowContext context, Niche niche) {
+        List<PotentialKeyword> recentKeywords = keywordRepository.findTop10ByNicheOrderByDiscoveredDateDesc(niche);
+        
+        DailySummary summary = llmService.generateDailySummary(
+                context.getKeywordsDiscovered(), context.getKeywordsQualified(), context.getArticlesGenerated(),
+                niche, recentKeywords
+        );
+        
+        Integer maxDepth = keywordRepository.findMaxDepthLevelByNiche(niche);
+        ExplorationStrategyResponse strategy = context.getStrategy();
+        
+        ExplorationLog explorationLog = ExplorationLog.builder()
+                .niche(niche)
+                .executionDate(LocalDateTime.now())
+                .explorationStrategy(strategy.getStrategy() + " - " + strategy.getReasoning())
+                .currentMaxDepthLevel(maxDepth != null ? maxDepth : 0)
+                .keywordsDiscovered(context.getKeywordsDiscovered())
+                .keywordsQualified(context.getKeywordsQualified())
+                .articlesGenerated(context.getArticlesGenerated())
+                .llmNotes(summary.getSummary() + "\n\nNext steps: " + summary.getNextSteps())
+                .executionDurationMs(System.currentTimeMillis() - context.getStartTimeMillis())
+                .success(true)
+                .build();
+        
+        explorationLogRepository.save(explorationLog);
+    }
+    
+    /**
+ * Manually trigger keyword exploration without article generation
+ */
+public KeywordExplorationResponse exploreKeywordsOnly(Long nicheId, List<String> seedKeywords, int depth) {
+    return exploreKeywordsOnly(nicheId, seedKeywords, depth, WorkflowProgressListener.NONE);
+}
+
+public KeywordExplorationResponse exploreKeywordsOnly(
+        Long nicheId, List<String> seedKeywords, int depth, WorkflowProgressListener listener) {
+    Niche niche = nicheRepository.findById(nicheId)
+            .orElseThrow(() -> new RuntimeException("Niche not found"));
+    
+    log.info("Manual keyword exploration for: {}", niche.getNicheName());
+    
+    WorkflowContext context = WorkflowContext.builder()
+            .nicheId(nicheId)
+            .startTimeMillis(System.currentTimeMillis())
+            .seedKeywords(seedKeywords)
+            .targetDepth(depth)
+            .stage(WorkflowStage.DISCOVERY)
+            .build();
+    
+    listener.onStageStarted(WorkflowStage.DISCOVERY, context);
+    List<DiscoveredKeyword> discovered = keywordDiscoveryService.discoverKeywordsWithProvenance(seedKeywords, depth);
+    List<String> newSuggestions = keywordDiscoveryService.filterNewKeywords(suggestionTexts(discovered), niche);
+    context.setKeywordsDiscovered(newSuggestions.size());
+    clusterSuggestions(context, newSuggestions, discovered);
+    listener.onStageCompleted(WorkflowStage.DISCOVERY, context);
+    
+    List<PotentialKeyword> existingKeywords = keywordRepository.findByNiche(niche);
+    
+    context.setStage(WorkflowStage.QUALIFICATION);
+    listener.onStageStarted(WorkflowStage.QUALIFICATION, context);
+    QualificationTotals totals = qualifyAndPersist(
+            context.getNewSuggestions(), context.getKeywordVariants(), niche, existingKeywords, depth,
+            seedKeywords, context.getSuggestionSeeds(),
+            progress -> { },
+            progress -> {
+                context.setSuggestionsProcessed(progress.processed());
+                context.setKeywordsSaved(progress.saved());
+                context.setKeywordsQualified(progress.qualified());
+                context.setKeywordsSkipped(progress.skipped());
+                context.setKeywordsMerged(progress.merged());
+                listener.onProgress(context);
+            });
+    listener.onStageCompleted(WorkflowStage.QUALIFICATION, context);
+    log.info("Saved {} keywords from manual exploration ({} merged, {} already stored)",
+            totals.saved(), totals.merged(), totals.skipped());
     
     return KeywordExplorationResponse.builder()
             .success(true)
             .message("Keywords explored successfully")
             .keywordsDiscovered(newSuggestions.size())
-            .keywordsQualified(qualifiedCount)
-            .keywordsSaved(saved.size())
+            .keywordsQualified(totals.qualified())
+            .keywordsSaved(totals.saved())
+            .keywordsSkipped(totals.skipped())
+            .keywordsMerged(totals.merged())
             .build();
 }
     /**
      * Generate article for a specific keyword
      */
-    @Transactional
     public Article generateArticleForKeyword(Long keywordId) {
-        PotentialKeyword keyword = keywordRepository.findById(keywordId)
+        PotentialKeyword keyword = keywordRepository.findByIdWithNiche(keywordId)
                 .orElseThrow(() -> new RuntimeException("Keyword not found"));
         
         if (keyword.getStatus() == KeywordStatus.WRITTEN) {
@@ -293,37 +558,159 @@ public KeywordExplorationResponse exploreKeywordsOnly(Long nicheId, List<String>
         Niche niche = keyword.getNiche();
         
         // Check similarity
-        List<Article> existingArticles = articleRepository.findByNicheWithKeywords(niche);
-        SimilarityCheckResponse similarity = llmService.checkContentSimilarity(
-                keyword.getKeywordText(), 
-                existingArticles
-        );
+        SimilarityCheckResponse similarity = contentSimilarityService.checkSimilarity(
+                keyword.getKeywordText(), niche);
         
-        if (similarity.getSimilar() && similarity.getSimilarityScore() >= 0.7) {
+        if (isTooSimilar(similarity)) {
             throw new RuntimeException("Content too similar to existing articles: " + 
                     similarity.getOverlappingArticles());
         }
         
         // Generate article
-        ArticleContent content = llmService.generateArticle(keyword, niche);
+        Article article = articleGenerationService.generate(keyword, niche, characters -> { });
         
-        Article article = Article.builder()
-                .keyword(keyword)
-                .niche(niche)
-                .title(content.getTitle())
-                .metaDescription(content.getMetaDescription())
-                .content(content.getContent())
-                .build();
+        log.info("Article generated for keyword: {} ({})", keyword.getKeywordText(), article.getGenerationStatus());
         
-        articleRepository.save(article);
+        return article;
+    }
+    
+    private boolean isTooSimilar(SimilarityCheckResponse similarity) {
+        return Boolean.TRUE.equals(similarity.getSimilar())
+                && similarity.getSimilarityScore() != null
+                && similarity.getSimilarityScore() >= 0.7;
+    }
+    
+    /**
+     * Qualifies suggestions through the concurrent pipeline and saves each batch's
+     * relevant keywords as soon as that batch completes. The checkpoint callback runs
+     * inside the batch's transaction, the progress callback after it has committed.
+     * Keywords another run stored in the meantime are resolved by the conflict policy
+     * and never fail the batch.
+     */
+    private QualificationTotals qualifyAndPersist(
+            List<String> suggestions,
+            Map<String, List<String>> keywordVariants,
+            Niche niche,
+            List<PotentialKeyword> existingKeywords,
+            int depth,
+            List<String> seedKeywords,
+            Map<String, String> suggestionSeeds,
+            Consumer<QualificationTotals> checkpointCallback,
+            Consumer<QualificationTotals> progressCallback) {
         
-        keyword.setStatus(KeywordStatus.WRITTEN);
-        keyword.setWrittenDate(LocalDateTime.now());
-        keywordRepository.save(keyword);
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger saved = new AtomicInteger();
+        AtomicInteger qualified = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger merged = new AtomicInteger();
+        ParentResolver parents = resolveParents(seedKeywords, suggestionSeeds);
+        // Re-keyed here as well, because checkpoints written before keys were normalized may be resumed
+        Map<String, List<String>> variantsByKey = new HashMap<>();
+        keywordVariants.forEach((text, variants) -> variantsByKey
+                .computeIfAbsent(keywordKey(text), key -> new ArrayList<>())
+                .addAll(variants));
         
-        log.info("Article generated for keyword: {}", keyword.getKeywordText());
+        qualificationPipeline.qualify(suggestions, niche, existingKeywords, batch -> {
+            List<PotentialKeyword> keywords = new ArrayList<>();
+            
+            for (KeywordQualification qual : batch.getQualifications()) {
+                if (Boolean.TRUE.equals(qual.getRelevant()) && !Boolean.TRUE.equals(qual.getOverlapsExisting())) {
+                    keywords.add(createPotentialKeyword(qual, niche, depth, parents.parentOf(qual.getKeyword())));
+                }
+            }
+            
+            List<KeywordVariant> variants = new ArrayList<>();
+            List<PotentialKeyword> inserted = new ArrayList<>();
+            QualificationTotals progress = transactionTemplate.execute(status -> {
+                KeywordUpsertResult result = keywordBulkRepository.upsert(keywords, conflictPolicy);
+                inserted.addAll(result.getInserted());
+                nicheCounterService.recordKeywordsSaved(niche.getId(), inserted);
+                nicheCounterService.recordKeywordsMerged(niche.getId(), result);
+                
+                for (PotentialKeyword keyword : inserted) {
+                    for (String variantText : variantsByKey.getOrDefault(keywordKey(keyword.getKeywordText()), List.of())) {
+                        variants.add(KeywordVariant.builder()
+                                .keyword(keywordRepository.getReferenceById(keyword.getId()))
+                                .variantText(variantText)
+                                .build());
+                    }
+                }
+                if (!variants.isEmpty()) {
+                    keywordVariantRepository.saveAll(variants);
+                }
+                
+                QualificationTotals totals = new QualificationTotals(
+                        processed.get() + batch.getSuggestions().size(),
+                        saved.get() + inserted.size(),
+                        qualified.get() + result.getPromoted()
+                                + (int) inserted.stream().filter(PotentialKeyword::isQualified).count(),
+                        skipped.get() + result.getSkipped(),
+                        merged.get() + result.getMerged());
+                checkpointCallback.accept(totals);
+                return totals;
+            });
+            
+            boolean mergedAny = progress.merged() > merged.get();
+            processed.set(progress.processed());
+            saved.set(progress.saved());
+            qualified.set(progress.qualified());
+            skipped.set(progress.skipped());
+            merged.set(progress.merged());
+            
+            if (!inserted.isEmpty()) {
+                keywordDiscoveryService.registerSavedKeywords(inserted);
+                keywordTreeIndex.addAll(niche.getId(), inserted);
+            }
+            if (mergedAny) {
+                // Merges change scores and statuses of rows the tree index does not have in hand
+                keywordTreeIndex.invalidate(niche.getId());
+            }
+            if (!variants.isEmpty()) {
+                keywordDiscoveryService.registerSavedVariants(variants);
+            }
+            progressCallback.accept(progress);
+        });
         
-        return article;
+        return new QualificationTotals(processed.get(), saved.get(), qualified.get(), skipped.get(), merged.get());
+    }
+    
+    private record QualificationTotals(int processed, int saved, int qualified, int skipped, int merged) {
+    }
+    
+    /**
+     * Loads the stored keywords behind the run's seeds in one query. Seeds that are
+     * not keywords themselves (e.g. the niche's own seed list) have no parent.
+     */
+    private ParentResolver resolveParents(List<String> seedKeywords, Map<String, String> suggestionSeeds) {
+        Map<String, PotentialKeyword> bySeed = new HashMap<>();
+        if (!seedKeywords.isEmpty()) {
+            keywordRepository.findByKeywordTextIn(seedKeywords)
+                    .forEach(keyword -> bySeed.put(keyword.getKeywordText(), keyword));
+        }
+        // Without provenance (e.g. a run checkpointed before it was recorded) only a single seed is unambiguous
+        PotentialKeyword fallback = seedKeywords.size() == 1 ? bySeed.get(seedKeywords.get(0)) : null;
+        
+        Map<String, String> seedByLowerText = new HashMap<>();
+        suggestionSeeds.forEach((text, seed) -> seedByLowerText.put(keywordKey(text), seed));
+        return new ParentResolver(suggestionSeeds, seedByLowerText, bySeed, fallback);
+    }
+    
+    /**
+     * Maps a qualified keyword to the stored keyword of the seed it was discovered from
+     */
+    private record ParentResolver(Map<String, String> suggestionSeeds,
+                                  Map<String, String> seedByLowerText,
+                                  Map<String, PotentialKeyword> keywordBySeed,
+                                  PotentialKeyword fallback) {
+        
+        PotentialKeyword parentOf(String keywordText) {
+            String seed = suggestionSeeds.get(keywordText);
+            if (seed == null && keywordText != null) {
+                // The LLM sometimes echoes a keyword back with different casing
+                seed = seedByLowerText.get(keywordKey(keywordText));
+            }
+            return seed != null ? keywordBySeed.get(seed) : fallback;
+        }
     }
     
     /**
@@ -333,17 +720,7 @@ public KeywordExplorationResponse exploreKeywordsOnly(Long nicheId, List<String>
             KeywordQualification qual, 
             Niche niche, 
             int depth,
-            List<String> seedKeywords) {
-        
-        // Try to find parent keyword
-        PotentialKeyword parent = null;
-        for (String seed : seedKeywords) {
-            Optional<PotentialKeyword> parentOpt = keywordRepository.findByKeywordText(seed);
-            if (parentOpt.isPresent()) {
-                parent = parentOpt.get();
-                break;
-            }
-        }
+            PotentialKeyword parent) {
         
         return PotentialKeyword.builder()
                 .keywordText(qual.getKeyword())
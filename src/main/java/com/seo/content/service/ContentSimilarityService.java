@@ -0,0 +1,99 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.LLMDto.SimilarityCheckResponse;
+import com.seo.content.index.ArticleMatch;
+import com.seo.content.index.ArticleSimilarityIndex;
+import com.seo.content.index.SimilarityIndexStats;
+import com.seo.content.model.Niche;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a keyword duplicates an existing article. Clear cases are settled by
+ * the local similarity index; only borderline scores go to the LLM, and then with just
+ * the nearest articles instead of the whole niche.
+ */
+@Service
+@Slf4j
+public class ContentSimilarityService {
+
+    private final ArticleSimilarityIndex similarityIndex;
+    private final LLMService llmService;
+    private final double duplicateThreshold;
+    private final double distinctThreshold;
+    private final int neighbours;
+
+    private final AtomicLong localDuplicates = new AtomicLong();
+    private final AtomicLong localDistinct = new AtomicLong();
+    private final AtomicLong llmChecks = new AtomicLong();
+
+    public ContentSimilarityService(
+            ArticleSimilarityIndex similarityIndex,
+            LLMService llmService,
+            @Value("${similarity.duplicate-threshold:0.8}") double duplicateThreshold,
+            @Value("${similarity.distinct-threshold:0.35}") double distinctThreshold,
+            @Value("${similarity.neighbours:5}") int neighbours) {
+        this.similarityIndex = similarityIndex;
+        this.llmService = llmService;
+        this.duplicateThreshold = duplicateThreshold;
+        this.distinctThreshold = distinctThreshold;
+        this.neighbours = neighbours;
+    }
+
+    public SimilarityCheckResponse checkSimilarity(String keywordText, Niche niche) {
+        // One extra neighbour in case the keyword's own article is among them
+        List<ArticleMatch> nearest = similarityIndex.nearest(niche.getId(), keywordText, neighbours + 1).stream()
+                .filter(match -> !keywordText.equals(match.getKeywordText()))
+                .limit(neighbours)
+                .toList();
+        double topScore = nearest.isEmpty() ? 0 : nearest.get(0).getScore();
+
+        if (topScore >= duplicateThreshold) {
+            localDuplicates.incrementAndGet();
+            List<String> overlapping = nearest.stream()
+                    .filter(match -> match.getScore() >= duplicateThreshold)
+                    .map(ArticleMatch::getTitle)
+                    .toList();
+            log.info("'{}' duplicates existing content (score {})", keywordText, String.format("%.2f", topScore));
+            return SimilarityCheckResponse.builder()
+                    .similar(true)
+                    .similarityScore(topScore)
+                    .reasoning("Near-duplicate of '" + nearest.get(0).getKeywordText() + "' in the similarity index")
+                    .overlappingArticles(overlapping)
+                    .build();
+        }
+
+        if (topScore < distinctThreshold) {
+            localDistinct.incrementAndGet();
+            return SimilarityCheckResponse.builder()
+                    .similar(false)
+                    .similarityScore(topScore)
+                    .reasoning("No existing article is close in the similarity index")
+                    .overlappingArticles(List.of())
+                    .build();
+        }
+
+        llmChecks.incrementAndGet();
+        log.debug("Borderline similarity {} for '{}', asking the LLM", String.format("%.2f", topScore), keywordText);
+        return llmService.checkContentSimilarity(keywordText, nearest);
+    }
+
+    /**
+     * Keeps the index current once an article has been stored
+     */
+    public void onArticleSaved(Long nicheId, Long articleId, String title, String keywordText) {
+        similarityIndex.add(nicheId, articleId, title, keywordText);
+    }
+
+    public SimilarityIndexStats getStats() {
+        SimilarityIndexStats stats = similarityIndex.getStats();
+        stats.setLocalDuplicates(localDuplicates.get());
+        stats.setLocalDistinct(localDistinct.get());
+        stats.setLlmChecks(llmChecks.get());
+        return stats;
+    }
+}
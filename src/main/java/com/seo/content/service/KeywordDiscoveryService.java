@@ -1,142 +1,293 @@
 package com.seo.content.service;
 
+import com.seo.content.cache.CacheStats;
+import com.seo.content.cache.SuggestionCache;
+import com.seo.content.dto.DiscoveredKeyword;
 import com.seo.content.dto.GoogleSuggestResponse;
+import com.seo.content.index.FilterStats;
+import com.seo.content.index.KnownKeywordFilter;
+import com.seo.content.model.KeywordVariant;
 import com.seo.content.model.Niche;
 import com.seo.content.model.PotentialKeyword;
+import com.seo.content.ratelimit.RateBucketStats;
+import com.seo.content.ratelimit.RateGovernor;
+import com.seo.content.repository.KeywordVariantRepository;
 import com.seo.content.repository.PotentialKeywordRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class KeywordDiscoveryService {
     
     private final RestTemplate restTemplate;
     private final PotentialKeywordRepository keywordRepository;
+    private final KeywordVariantRepository keywordVariantRepository;
+    private final ExecutorService suggestExecutor;
+    private final RateGovernor rateGovernor;
+    private final SuggestionCache suggestionCache;
+    private final SuggestResponseParser suggestResponseParser;
+    private final KnownKeywordFilter knownKeywordFilter;
+    private final int dedupChunkSize;
+    private final int maxRetries;
     
     private static final String GOOGLE_SUGGEST_URL = 
             "http://suggestqueries.google.com/complete/search";
     
-    private static final Pattern SUGGESTION_PATTERN = 
-            Pattern.compile("\\[\"([^\"]+)\"");
+    // Latency marker for fan-out queries answered by the suggestion cache
+    private static final long CACHE_HIT = -1L;
+    
+    public KeywordDiscoveryService(
+            RestTemplate restTemplate,
+            PotentialKeywordRepository keywordRepository,
+            KeywordVariantRepository keywordVariantRepository,
+            @Qualifier("suggestExecutor") ExecutorService suggestExecutor,
+            SuggestionCache suggestionCache,
+            SuggestResponseParser suggestResponseParser,
+            KnownKeywordFilter knownKeywordFilter,
+            RateGovernor rateGovernor,
+            @Value("${keywords.dedup.chunk-size:500}") int dedupChunkSize,
+            @Value("${suggest.max-retries:3}") int maxRetries) {
+        this.restTemplate = restTemplate;
+        this.keywordRepository = keywordRepository;
+        this.keywordVariantRepository = keywordVariantRepository;
+        this.suggestExecutor = suggestExecutor;
+        this.rateGovernor = rateGovernor;
+        this.suggestionCache = suggestionCache;
+        this.suggestResponseParser = suggestResponseParser;
+        this.knownKeywordFilter = knownKeywordFilter;
+        this.dedupChunkSize = dedupChunkSize;
+        this.maxRetries = maxRetries;
+    }
     
     /**
-     * Fetches keyword suggestions from Google's autocomplete API
+     * Fetches keyword suggestions, serving repeated queries from the suggestion cache
      */
     public GoogleSuggestResponse fetchGoogleSuggestions(String keyword) {
-        try {
-            String encodedKeyword = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
-            
-            String url = UriComponentsBuilder.fromUriString(GOOGLE_SUGGEST_URL)
-                    .queryParam("client", "firefox")
-                    .queryParam("q", encodedKeyword)
-                    .build(false) // Don't encode again
-                    .toUriString();
-            
-            log.debug("Fetching suggestions for: {}", keyword);
-            
-            String response = restTemplate.getForObject(url, String.class);
-            
-            List<String> suggestions = parseSuggestions(response);
-            
-            log.info("Found {} suggestions for keyword: {}", suggestions.size(), keyword);
-            
-            return GoogleSuggestResponse.builder()
-                    .query(keyword)
-                    .suggestions(suggestions)
-                    .build();
-            
-        } catch (Exception e) {
-            log.error("Error fetching Google suggestions for: {}", keyword, e);
-            return GoogleSuggestResponse.builder()
-                    .query(keyword)
-                    .suggestions(new ArrayList<>())
-                    .build();
+        Optional<GoogleSuggestResponse> cached = lookupCachedSuggestions(keyword);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (!acquireSuggestPermit()) {
+            return emptyResponse(keyword);
         }
+        return requestGoogleSuggestions(keyword);
     }
     
     /**
-     * Expands keyword tree by exploring a seed keyword and its variations
+     * Calls Google's autocomplete API and caches successful responses.
+     * A 429 pauses the shared suggest bucket and the request is retried once a permit frees up.
      */
-    public List<String> expandKeywordTree(String seedKeyword, int currentDepth) {
-        List<String> allSuggestions = new ArrayList<>();
-        
-        // Get direct suggestions
-        GoogleSuggestResponse directSuggestions = fetchGoogleSuggestions(seedKeyword);
-        allSuggestions.addAll(directSuggestions.getSuggestions());
-        
-        // Add common modifiers for depth
-        if (currentDepth <= 2) {
-            List<String> modifiers = getModifiersForDepth(currentDepth);
-            
-            for (String modifier : modifiers) {
-                String modifiedQuery = seedKeyword + " " + modifier;
-                GoogleSuggestResponse modifiedSuggestions = fetchGoogleSuggestions(modifiedQuery);
-                allSuggestions.addAll(modifiedSuggestions.getSuggestions());
-                
-                // Rate limiting to be respectful
-                try {
-                    Thread.sleep(200);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+    private GoogleSuggestResponse requestGoogleSuggestions(String keyword) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return executeSuggestRequest(keyword);
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                if (attempt >= maxRetries) {
+                    log.error("Giving up on suggestions for '{}' after {} rate-limited attempts", keyword, attempt + 1);
+                    return emptyResponse(keyword);
                 }
+                HttpHeaders headers = e.getResponseHeaders();
+                rateGovernor.onThrottled(RateGovernor.SUGGEST,
+                        headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null, attempt);
+                if (!acquireSuggestPermit()) {
+                    return emptyResponse(keyword);
+                }
+            } catch (Exception e) {
+                log.error("Error fetching Google suggestions for: {}", keyword, e);
+                return emptyResponse(keyword);
             }
         }
+    }
+    
+    private GoogleSuggestResponse executeSuggestRequest(String keyword) {
+        URI uri = UriComponentsBuilder.fromUriString(GOOGLE_SUGGEST_URL)
+                .queryParam("client", "firefox")
+                .queryParam("ie", "utf-8")
+                .queryParam("oe", "utf-8")
+                .queryParam("q", keyword)
+                .encode()
+                .build()
+                .toUri();
         
-        // Remove duplicates and filter
-        return allSuggestions.stream()
-                .distinct()
-                .filter(s -> s != null && !s.trim().isEmpty())
-                .filter(s -> !s.equalsIgnoreCase(seedKeyword))
-                .collect(Collectors.toList());
+        log.debug("Fetching suggestions for: {}", keyword);
+        
+        List<String> suggestions = restTemplate.execute(uri, HttpMethod.GET, null,
+                response -> suggestResponseParser.parse(response.getBody()));
+        if (suggestions == null) {
+            suggestions = new ArrayList<>();
+        }
+        suggestionCache.put(keyword, suggestions);
+        
+        log.info("Found {} suggestions for keyword: {}", suggestions.size(), keyword);
+        
+        return GoogleSuggestResponse.builder()
+                .query(keyword)
+                .suggestions(suggestions)
+                .build();
+    }
+    
+    private Optional<GoogleSuggestResponse> lookupCachedSuggestions(String keyword) {
+        return suggestionCache.get(keyword)
+                .map(suggestions -> GoogleSuggestResponse.builder()
+                        .query(keyword)
+                        .suggestions(new ArrayList<>(suggestions))
+                        .build());
+    }
+    
+    private boolean acquireSuggestPermit() {
+        try {
+            rateGovernor.acquire(RateGovernor.SUGGEST);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    public CacheStats getSuggestionCacheStats() {
+        return suggestionCache.getStats();
+    }
+    
+    public Map<String, RateBucketStats> getRateLimitStats() {
+        return rateGovernor.getStats();
     }
     
     /**
-     * Discovers new keywords from multiple seed keywords
+     * Expands keyword tree by exploring a seed keyword and its variations
+     */
+    public List<String> expandKeywordTree(String seedKeyword, int currentDepth) {
+        List<GoogleSuggestResponse> responses = fetchSuggestionsConcurrently(
+                buildExpansionQueries(seedKeyword, currentDepth));
+        
+        return collectSuggestions(seedKeyword, responses);
+    }
+    
+    /**
+     * Discovers new keywords from multiple seed keywords.
+     * All seed and modifier queries are fanned out together, so wall time is
+     * bounded by the suggest rate limit rather than by per-request latency.
      */
     public List<String> discoverKeywordsFromSeeds(List<String> seedKeywords, int targetDepth) {
-        List<String> allDiscoveredKeywords = new ArrayList<>();
+        return discoverKeywordsWithProvenance(seedKeywords, targetDepth).stream()
+                .map(DiscoveredKeyword::getKeywordText)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Same as discoverKeywordsFromSeeds, but keeps the seed and query each suggestion
+     * came from. A suggestion returned for several queries keeps the first one.
+     */
+    public List<DiscoveredKeyword> discoverKeywordsWithProvenance(List<String> seedKeywords, int targetDepth) {
+        List<String> queries = new ArrayList<>();
+        List<String> querySeeds = new ArrayList<>();
         
         for (String seed : seedKeywords) {
             log.info("Exploring seed keyword: {} at depth {}", seed, targetDepth);
-            
-            List<String> suggestions = expandKeywordTree(seed, targetDepth);
-            allDiscoveredKeywords.addAll(suggestions);
-            
-            // Rate limiting
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+            for (String query : buildExpansionQueries(seed, targetDepth)) {
+                queries.add(query);
+                querySeeds.add(seed);
             }
         }
         
-        return allDiscoveredKeywords.stream()
-                .distinct()
-                .collect(Collectors.toList());
+        List<GoogleSuggestResponse> responses = fetchSuggestionsConcurrently(queries);
+        
+        Map<String, DiscoveredKeyword> discovered = new LinkedHashMap<>();
+        for (int i = 0; i < responses.size(); i++) {
+            String seed = querySeeds.get(i);
+            String query = queries.get(i);
+            for (String suggestion : collectSuggestions(seed, List.of(responses.get(i)))) {
+                discovered.putIfAbsent(suggestion, DiscoveredKeyword.builder()
+                        .keywordText(suggestion)
+                        .seedKeyword(seed)
+                        .query(query)
+                        .build());
+            }
+        }
+        
+        return new ArrayList<>(discovered.values());
     }
     
     /**
-     * Filters out keywords that already exist in the database
+     * Filters out keywords that already exist in the database, either as keywords
+     * or as variants recorded against one.
+     * Keywords the known-keyword filter rules out skip the database entirely;
+     * the rest are checked with one IN query per chunk.
      */
     public List<String> filterNewKeywords(List<String> suggestions, Niche niche) {
-        return suggestions.stream()
-                .filter(keyword -> !keywordRepository.existsByKeywordText(keyword))
+        if (suggestions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        long start = System.nanoTime();
+        List<String> distinctSuggestions = new ArrayList<>(new LinkedHashSet<>(suggestions));
+        List<String> possiblyKnown = distinctSuggestions.stream()
+                .filter(knownKeywordFilter::mightContain)
                 .collect(Collectors.toList());
+        
+        Set<String> existing = new HashSet<>();
+        int roundTrips = 0;
+        
+        for (int i = 0; i < possiblyKnown.size(); i += dedupChunkSize) {
+            List<String> chunk = possiblyKnown.subList(i, Math.min(i + dedupChunkSize, possiblyKnown.size()));
+            existing.addAll(keywordRepository.findExistingKeywordTexts(chunk));
+            existing.addAll(keywordVariantRepository.findExistingVariantTexts(chunk));
+            roundTrips += 2;
+        }
+        
+        List<String> newKeywords = distinctSuggestions.stream()
+                .filter(keyword -> !existing.contains(keyword))
+                .collect(Collectors.toList());
+        
+        log.info("Dedup check: {} suggestions, {} ruled out by filter, {} already known, {} queries in {} ms",
+                distinctSuggestions.size(),
+                distinctSuggestions.size() - possiblyKnown.size(),
+                existing.size(),
+                roundTrips,
+                (System.nanoTime() - start) / 1_000_000);
+        
+        return newKeywords;
+    }
+    
+    /**
+     * Records persisted keywords so later dedup checks know about them
+     */
+    public void registerSavedKeywords(List<PotentialKeyword> savedKeywords) {
+        knownKeywordFilter.addAll(savedKeywords.stream()
+                .map(PotentialKeyword::getKeywordText)
+                .collect(Collectors.toList()));
+    }
+    
+    public void registerSavedVariants(List<KeywordVariant> savedVariants) {
+        knownKeywordFilter.addAll(savedVariants.stream()
+                .map(KeywordVariant::getVariantText)
+                .collect(Collectors.toList()));
+    }
+    
+    public FilterStats getKnownKeywordFilterStats() {
+        return knownKeywordFilter.getStats();
     }
     
     /**
@@ -153,64 +304,147 @@ public class KeywordDiscoveryService {
     }
     
     /**
-     * Parses Google's JSON-like response format
+     * Generates alphabet soup variations (keyword + a, keyword + b, etc.)
+     * Useful for comprehensive keyword discovery
      */
-    private List<String> parseSuggestions(String response) {
-        List<String> suggestions = new ArrayList<>();
+    public List<String> generateAlphabetSoupSuggestions(String keyword) {
+        // Only use common starting letters to avoid too many requests
+        String[] letters = {"a", "b", "c", "d", "e", "f", "g", "h", "i", "t", "w"};
+        
+        List<String> queries = Arrays.stream(letters)
+                .map(letter -> keyword + " " + letter)
+                .collect(Collectors.toList());
+        
+        Set<String> allSuggestions = new LinkedHashSet<>();
+        fetchSuggestionsConcurrently(queries)
+                .forEach(response -> allSuggestions.addAll(response.getSuggestions()));
+        
+        return new ArrayList<>(allSuggestions);
+    }
+    
+    /**
+     * Builds the direct query plus modifier queries for a seed keyword
+     */
+    private List<String> buildExpansionQueries(String seedKeyword, int depth) {
+        List<String> queries = new ArrayList<>();
+        queries.add(seedKeyword);
         
-        if (response == null || response.isEmpty()) {
-            return suggestions;
+        if (depth <= 2) {
+            for (String modifier : getModifiersForDepth(depth)) {
+                queries.add(seedKeyword + " " + modifier);
+            }
         }
         
-        try {
-            // Google returns: ["query",["suggestion1","suggestion2",...]]
-            // We need to extract the suggestions array
-            
-            Matcher matcher = SUGGESTION_PATTERN.matcher(response);
-            boolean firstMatch = true;
-            
-            while (matcher.find()) {
-                if (firstMatch) {
-                    // Skip the first match (it's the query itself)
-                    firstMatch = false;
-                    continue;
+        return queries;
+    }
+    
+    /**
+     * Merges suggestion lists for one seed, dropping blanks and the seed itself
+     */
+    private List<String> collectSuggestions(String seedKeyword, List<GoogleSuggestResponse> responses) {
+        Set<String> suggestions = new LinkedHashSet<>();
+        
+        for (GoogleSuggestResponse response : responses) {
+            for (String suggestion : response.getSuggestions()) {
+                if (suggestion != null && !suggestion.trim().isEmpty()
+                        && !suggestion.equalsIgnoreCase(seedKeyword)) {
+                    suggestions.add(suggestion);
                 }
-                suggestions.add(matcher.group(1));
             }
-            
-        } catch (Exception e) {
-            log.error("Error parsing suggestions", e);
         }
         
-        return suggestions;
+        return new ArrayList<>(suggestions);
     }
     
     /**
-     * Generates alphabet soup variations (keyword + a, keyword + b, etc.)
-     * Useful for comprehensive keyword discovery
+     * Sends suggest requests concurrently behind the shared suggest rate bucket.
+     * Responses are returned in query order; throughput and latency are logged per run.
      */
-    public List<String> generateAlphabetSoupSuggestions(String keyword) {
-        List<String> allSuggestions = new ArrayList<>();
+    private List<GoogleSuggestResponse> fetchSuggestionsConcurrently(List<String> queries) {
+        if (queries.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // Only use common starting letters to avoid too many requests
-        String[] letters = {"a", "b", "c", "d", "e", "f", "g", "h", "i", "t", "w"};
+        long runStart = System.nanoTime();
+        long[] latenciesNanos = new long[queries.size()];
         
-        for (String letter : letters) {
-            String query = keyword + " " + letter;
-            GoogleSuggestResponse response = fetchGoogleSuggestions(query);
-            allSuggestions.addAll(response.getSuggestions());
-            
-            // Rate limiting
-            try {
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+        List<Future<GoogleSuggestResponse>> futures = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            int index = i;
+            String query = queries.get(i);
+            futures.add(suggestExecutor.submit(() -> {
+                Optional<GoogleSuggestResponse> cached = lookupCachedSuggestions(query);
+                if (cached.isPresent()) {
+                    latenciesNanos[index] = CACHE_HIT;
+                    return cached.get();
+                }
+                if (!acquireSuggestPermit()) {
+                    return emptyResponse(query);
+                }
+                long requestStart = System.nanoTime();
+                GoogleSuggestResponse response = requestGoogleSuggestions(query);
+                latenciesNanos[index] = System.nanoTime() - requestStart;
+                return response;
+            }));
+        }
+        
+        List<GoogleSuggestResponse> responses = new ArrayList<>(futures.size());
+        try {
+            for (Future<GoogleSuggestResponse> future : futures) {
+                responses.add(future.get());
             }
+        } catch (InterruptedException e) {
+            // The run was cancelled: stop the remaining requests so they give their rate permits back
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Suggest fan-out interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Suggest request failed", e.getCause());
         }
         
-        return allSuggestions.stream()
-                .distinct()
-                .collect(Collectors.toList());
+        logFanOutStats(responses, latenciesNanos, System.nanoTime() - runStart);
+        
+        return responses;
+    }
+    
+    private void logFanOutStats(List<GoogleSuggestResponse> responses, long[] latenciesNanos, long wallNanos) {
+        long[] requestLatencies = Arrays.stream(latenciesNanos)
+                .filter(latency -> latency >= 0)
+                .sorted()
+                .toArray();
+        int cacheHits = latenciesNanos.length - requestLatencies.length;
+        
+        double wallSeconds = wallNanos / 1_000_000_000.0;
+        double avgMs = Arrays.stream(requestLatencies).average().orElse(0) / 1_000_000.0;
+        double p95Ms = requestLatencies.length == 0 ? 0 : requestLatencies[Math.min(
+                requestLatencies.length - 1, (int) Math.ceil(requestLatencies.length * 0.95) - 1)] / 1_000_000.0;
+        int suggestionCount = responses.stream().mapToInt(r -> r.getSuggestions().size()).sum();
+        
+        log.info("Suggest fan-out: {} queries ({} from cache, {} outbound), {} suggestions in {} ms " +
+                        "({} req/s, avg {} ms, p95 {} ms)",
+                responses.size(),
+                cacheHits,
+                requestLatencies.length,
+                suggestionCount,
+                wallNanos / 1_000_000,
+                String.format("%.2f", wallSeconds > 0 ? requestLatencies.length / wallSeconds : 0),
+                String.format("%.1f", avgMs),
+                String.format("%.1f", p95Ms));
+        
+        CacheStats cacheStats = suggestionCache.getStats();
+        log.info("Suggestion cache: {} memory hits, {} persistent hits, {} misses, {} evictions, {} entries",
+                cacheStats.getMemoryHits(),
+                cacheStats.getPersistentHits(),
+                cacheStats.getMisses(),
+                cacheStats.getEvictions(),
+                cacheStats.getMemorySize());
+    }
+    
+    private GoogleSuggestResponse emptyResponse(String keyword) {
+        return GoogleSuggestResponse.builder()
+                .query(keyword)
+                .suggestions(new ArrayList<>())
+                .build();
     }
 }
@@ -0,0 +1,180 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.BatchSizingStats;
+import com.seo.content.dto.LLMDto.KeywordQualification;
+import com.seo.content.dto.QualificationBatchResult;
+import com.seo.content.dto.QualificationRunStats;
+import com.seo.content.model.Niche;
+import com.seo.content.model.PotentialKeyword;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Qualifies keyword suggestions with the LLM, sending several batches concurrently;
+ * request and token budgets are enforced by the shared rate governor inside LLMService.
+ * Batch sizes adapt to the token usage reported by the LLM, and batch results are
+ * handed to the caller in submission order as soon as they are ready.
+ */
+@Service
+@Slf4j
+public class KeywordQualificationPipeline {
+    
+    private final LLMService llmService;
+    private final AdaptiveBatchSizer batchSizer;
+    private final int concurrency;
+    
+    public KeywordQualificationPipeline(
+            LLMService llmService,
+            @Value("${llm.qualification.batch-size:20}") int batchSize,
+            @Value("${llm.qualification.min-batch-size:5}") int minBatchSize,
+            @Value("${llm.qualification.max-batch-size:100}") int maxBatchSize,
+            @Value("${llm.qualification.target-utilization:0.7}") double targetUtilization,
+            @Value("${llm.context-window:131072}") int contextWindowTokens,
+            @Value("${llm.qualification.concurrency:4}") int concurrency) {
+        this.llmService = llmService;
+        this.concurrency = concurrency;
+        this.batchSizer = new AdaptiveBatchSizer(batchSize, minBatchSize, maxBatchSize,
+                llmService.getMaxTokens(), contextWindowTokens, targetUtilization);
+    }
+    
+    /**
+     * Qualifies all suggestions and passes each finished batch to the sink on the calling thread.
+     * A failed batch is reported with an empty qualification list rather than aborting the run.
+     */
+    public QualificationRunStats qualify(
+            List<String> suggestions,
+            Niche niche,
+            List<PotentialKeyword> existingKeywords,
+            Consumer<QualificationBatchResult> batchSink) {
+        
+        long start = System.currentTimeMillis();
+        int batchCount = 0;
+        int failedBatches = 0;
+        
+        // Batches are cut lazily so each one uses the size chosen after the latest feedback
+        Flux<List<String>> batches = Flux.generate(() -> 0, (offset, sink) -> {
+            if (offset >= suggestions.size()) {
+                sink.complete();
+                return offset;
+            }
+            int end = Math.min(offset + batchSizer.nextBatchSize(), suggestions.size());
+            sink.next(suggestions.subList(offset, end));
+            return end;
+        });
+        
+        Flux<QualificationBatchResult> results = batches
+                .index()
+                .flatMapSequential(indexed -> qualifyBatch(
+                                indexed.getT1().intValue(), indexed.getT2(), niche, existingKeywords),
+                        Math.max(1, concurrency));
+        
+        for (QualificationBatchResult result : results.toIterable()) {
+            batchCount++;
+            if (result.isFailed()) {
+                failedBatches++;
+            }
+            batchSink.accept(result);
+        }
+        
+        QualificationRunStats stats = QualificationRunStats.builder()
+                .suggestions(suggestions.size())
+                .batches(batchCount)
+                .failedBatches(failedBatches)
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+        
+        BatchSizingStats sizing = batchSizer.getStats();
+        log.info("Qualified {} suggestions in {} batches ({} failed) in {} ms - next batch size {}, " +
+                        "{} keywords per 1k tokens, {} keywords/s",
+                stats.getSuggestions(), stats.getBatches(), stats.getFailedBatches(), stats.getDurationMs(),
+                sizing.getCurrentBatchSize(),
+                String.format("%.1f", sizing.getKeywordsPerThousandTokens()),
+                String.format("%.2f", stats.getDurationMs() == 0 ? 0 : stats.getSuggestions() * 1000.0 / stats.getDurationMs()));
+        
+        return stats;
+    }
+    
+    public BatchSizingStats getBatchSizingStats() {
+        return batchSizer.getStats();
+    }
+    
+    private Mono<QualificationBatchResult> qualifyBatch(
+            int index,
+            List<String> batch,
+            Niche niche,
+            List<PotentialKeyword> existingKeywords) {
+        
+        long start = System.currentTimeMillis();
+        
+        return qualifyAdaptively(batch, niche, existingKeywords)
+                .map(qualifications -> QualificationBatchResult.builder()
+                        .batchIndex(index)
+                        .suggestions(batch)
+                        .qualifications(qualifications)
+                        .latencyMs(System.currentTimeMillis() - start)
+                        .build())
+                .onErrorResume(e -> {
+                    log.error("Qualification batch {} failed", index, e);
+                    return Mono.just(QualificationBatchResult.builder()
+                            .batchIndex(index)
+                            .suggestions(batch)
+                            .qualifications(new ArrayList<>())
+                            .failed(true)
+                            .build());
+                });
+    }
+    
+    /**
+     * Sends one batch; if the response was truncated, records it and retries the two halves in order.
+     * A reply that could not be parsed is retried once at the same size, then its fallback scores are kept.
+     */
+    private Mono<List<KeywordQualification>> qualifyAdaptively(
+            List<String> batch,
+            Niche niche,
+            List<PotentialKeyword> existingKeywords) {
+        return qualifyAdaptively(batch, niche, existingKeywords, true);
+    }
+    
+    private Mono<List<KeywordQualification>> qualifyAdaptively(
+            List<String> batch,
+            Niche niche,
+            List<PotentialKeyword> existingKeywords,
+            boolean retryParseFailure) {
+        
+        return Mono.defer(() -> {
+            long requestStart = System.currentTimeMillis();
+            return llmService.qualifyKeywordBatchAsync(batch, niche, existingKeywords)
+                    .flatMap(result -> {
+                        batchSizer.record(batch.size(), result.getUsage(), result.isTruncated(),
+                                System.currentTimeMillis() - requestStart);
+                        
+                        if (result.isTruncated() && batch.size() > 1) {
+                            log.warn("Qualification output truncated for batch of {} - splitting", batch.size());
+                            int mid = batch.size() / 2;
+                            return Flux.concat(
+                                            qualifyAdaptively(batch.subList(0, mid), niche, existingKeywords),
+                                            qualifyAdaptively(batch.subList(mid, batch.size()), niche, existingKeywords))
+                                    .collectList()
+                                    .map(halves -> halves.stream()
+                                            .flatMap(List::stream)
+                                            .collect(Collectors.toList()));
+                        }
+                        
+                        if (result.isParseFailed() && retryParseFailure) {
+                            log.warn("Unparseable qualification reply for batch of {} - retrying once", batch.size());
+                            return qualifyAdaptively(batch, niche, existingKeywords, false);
+                        }
+                        
+                        return Mono.just(result.getQualifications());
+                    });
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.KeywordTreeEntry;
+import com.seo.content.model.KeywordStatus;
+import com.seo.content.repository.PotentialKeywordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Reads keyword subtrees and ancestor chains with one recursive query each, instead of
+ * walking childKeywords and lazy-loading every node. Unlike the in-memory tree index
+ * this always reflects the committed database state.
+ */
+@Service
+public class KeywordTreeQueryService {
+
+    private final PotentialKeywordRepository keywordRepository;
+    private final int maxNodes;
+
+    public KeywordTreeQueryService(
+            PotentialKeywordRepository keywordRepository,
+            @Value("${keywords.tree.max-nodes:5000}") int maxNodes) {
+        this.keywordRepository = keywordRepository;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * The subtree under rootId, or all trees of the niche when rootId is null, depth-first.
+     * maxDepth counts levels below the start; keywords scoring under minScore are left out
+     * together with their subtree. Empty when rootId is not a keyword of the niche.
+     */
+    public Optional<List<KeywordTreeEntry>> getTree(Long nicheId, Long rootId, Integer maxDepth,
+                                                    Double minScore, Integer limit) {
+        if (maxDepth != null && maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        int depth = maxDepth != null ? maxDepth : Integer.MAX_VALUE;
+        // Unscored keywords compare as -1, so they are only included without a score filter
+        double score = minScore != null ? minScore : -1.0;
+        int rows = limit != null ? Math.min(limit, maxNodes) : maxNodes;
+
+        if (rootId == null) {
+            return Optional.of(toEntries(keywordRepository.findNicheTreeRows(nicheId, depth, score, rows)));
+        }
+        List<KeywordTreeEntry> subtree = toEntries(
+                keywordRepository.findSubtreeRows(nicheId, rootId, depth, score, rows));
+        if (subtree.isEmpty() && !keywordRepository.existsByIdAndNicheId(rootId, nicheId)) {
+            return Optional.empty();
+        }
+        return Optional.of(subtree);
+    }
+
+    /**
+     * The keyword's ancestors root first, ending with the keyword itself; empty when it does not exist
+     */
+    public Optional<List<KeywordTreeEntry>> getAncestors(Long keywordId) {
+        List<KeywordTreeEntry> chain = toEntries(keywordRepository.findAncestorRows(keywordId));
+        return chain.isEmpty() ? Optional.empty() : Optional.of(chain);
+    }
+
+    private List<KeywordTreeEntry> toEntries(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> KeywordTreeEntry.builder()
+                        .id(((Number) row[0]).longValue())
+                        .parentKeywordId(row[1] != null ? ((Number) row[1]).longValue() : null)
+                        .keywordText((String) row[2])
+                        .depthLevel(row[3] != null ? ((Number) row[3]).intValue() : null)
+                        .qualificationScore(row[4] != null ? ((Number) row[4]).doubleValue() : null)
+                        .status(row[5] != null ? KeywordStatus.valueOf((String) row[5]) : null)
+                        .distance(((Number) row[6]).intValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
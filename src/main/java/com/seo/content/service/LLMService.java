@@ -3,20 +3,34 @@ package com.seo.content.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seo.content.cache.LlmCacheStats;
+import com.seo.content.cache.LlmResponseCache;
 import com.seo.content.dto.LLMDto.*;
-import com.seo.content.model.Article;
+import com.seo.content.index.ArticleMatch;
+import com.seo.content.index.KeywordTreeNode;
 import com.seo.content.model.Niche;
 import com.seo.content.model.PotentialKeyword;
+import com.seo.content.ratelimit.InFlightLimiter;
+import com.seo.content.ratelimit.RateGovernor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +39,12 @@ public class LLMService {
     
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final LlmResponseCache responseCache;
+    private final InFlightLimiter inFlightLimiter;
+    private final RateGovernor rateGovernor;
+    
+    // Rough characters-per-token ratio used to reserve prompt tokens before the call
+    private static final int CHARS_PER_TOKEN = 4;
     
     @Value("${llm.api.key}")
     private String apiKey;
@@ -41,9 +61,26 @@ public class LLMService {
     @Value("${llm.temperature:0.7}")
     private Double temperature;
     
-    public LLMService(WebClient webClient, ObjectMapper objectMapper) {
+    @Value("${llm.timeout.seconds:60}")
+    private long timeoutSeconds;
+    
+    @Value("${llm.max-retries:3}")
+    private int maxRetries;
+    
+    @Value("${llm.stream.idle-timeout-seconds:30}")
+    private long streamIdleTimeoutSeconds;
+    
+    public LLMService(
+            WebClient webClient,
+            ObjectMapper objectMapper,
+            LlmResponseCache responseCache,
+            RateGovernor rateGovernor,
+            @Value("${llm.max-in-flight:8}") int maxInFlight) {
         this.webClient = webClient;
         this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
+        this.rateGovernor = rateGovernor;
+        this.inFlightLimiter = new InFlightLimiter(maxInFlight);
     }
     
     /**
@@ -52,24 +89,48 @@ public class LLMService {
     public ExplorationStrategyResponse decideExplorationStrategy(
             Niche niche, 
             List<PotentialKeyword> existingKeywords) {
-        
-        String prompt = buildExplorationStrategyPrompt(niche, existingKeywords);
-        
-        String response = callLLM(prompt, "You are an SEO content strategist. " +
-                "Respond with valid JSON only, no markdown formatting.");
-        
-        try {
-            return objectMapper.readValue(response, ExplorationStrategyResponse.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse exploration strategy response", e);
-            // Fallback strategy
-            return ExplorationStrategyResponse.builder()
-                    .strategy("explore_seed_keywords")
-                    .seedKeywordsToExplore(niche.getSeedKeywordsAsList())
-                    .reasoning("Using default strategy due to parsing error")
-                    .targetDepthLevel(1)
-                    .build();
-        }
+        return decideExplorationStrategy(niche, existingKeywords, List.of());
+    }
+    
+    /**
+     * Same as above, with the most promising unexpanded keywords listed in the prompt
+     */
+    public ExplorationStrategyResponse decideExplorationStrategy(
+            Niche niche, 
+            List<PotentialKeyword> existingKeywords,
+            List<KeywordTreeNode> frontier) {
+        return decideExplorationStrategyAsync(niche, existingKeywords, frontier).block();
+    }
+    
+    public Mono<ExplorationStrategyResponse> decideExplorationStrategyAsync(
+            Niche niche, 
+            List<PotentialKeyword> existingKeywords) {
+        return decideExplorationStrategyAsync(niche, existingKeywords, List.of());
+    }
+    
+    public Mono<ExplorationStrategyResponse> decideExplorationStrategyAsync(
+            Niche niche, 
+            List<PotentialKeyword> existingKeywords,
+            List<KeywordTreeNode> frontier) {
+        
+        String prompt = buildExplorationStrategyPrompt(niche, existingKeywords, frontier);
+        
+        return callLLMAsync(prompt, "You are an SEO content strategist. " +
+                "Respond with valid JSON only, no markdown formatting.")
+                .map(response -> {
+                    try {
+                        return objectMapper.readValue(response, ExplorationStrategyResponse.class);
+                    } catch (JsonProcessingException e) {
+                        log.error("Failed to parse exploration strategy response", e);
+                        // Fallback strategy
+                        return ExplorationStrategyResponse.builder()
+                                .strategy("explore_seed_keywords")
+                                .seedKeywordsToExplore(niche.getSeedKeywordsAsList())
+                                .reasoning("Using default strategy due to parsing error")
+                                .targetDepthLevel(1)
+                                .build();
+                    }
+                });
     }
     
     /**
@@ -79,27 +140,61 @@ public class LLMService {
             List<String> suggestions, 
             Niche niche, 
             List<PotentialKeyword> existingKeywords) {
+        return qualifyKeywordsAsync(suggestions, niche, existingKeywords).block();
+    }
+    
+    public Mono<List<KeywordQualification>> qualifyKeywordsAsync(
+            List<String> suggestions, 
+            Niche niche, 
+            List<PotentialKeyword> existingKeywords) {
+        return qualifyKeywordBatchAsync(suggestions, niche, existingKeywords)
+                .map(KeywordQualificationBatch::getQualifications);
+    }
+    
+    /**
+     * Qualifies a batch and also reports token usage and whether the output was truncated
+     */
+    public Mono<KeywordQualificationBatch> qualifyKeywordBatchAsync(
+            List<String> suggestions, 
+            Niche niche, 
+            List<PotentialKeyword> existingKeywords) {
         
         String prompt = buildKeywordQualificationPrompt(suggestions, niche, existingKeywords);
         
-        String response = callLLM(prompt, "You are an SEO keyword analyst. " +
-                "Respond with a valid JSON array only, no markdown formatting.");
-        
-        try {
-            return objectMapper.readValue(response, new TypeReference<List<KeywordQualification>>() {});
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse keyword qualification response", e);
-            // Return conservative qualifications
-            return suggestions.stream()
-                    .map(keyword -> KeywordQualification.builder()
-                            .keyword(keyword)
-                            .relevant(false)
-                            .overlapsExisting(true)
-                            .score(3.0)
-                            .reasoning("Default low score due to parsing error")
-                            .build())
-                    .collect(Collectors.toList());
-        }
+        String systemPrompt = "You are an SEO keyword analyst. " +
+                "Respond with a valid JSON array only, no markdown formatting.";
+        
+        return completeAsync(prompt, systemPrompt, maxTokens, true)
+                .map(completion -> {
+                    try {
+                        List<KeywordQualification> qualifications = objectMapper.readValue(
+                                completion.getContent(), new TypeReference<List<KeywordQualification>>() {});
+                        return KeywordQualificationBatch.builder()
+                                .qualifications(qualifications)
+                                .usage(completion.getUsage())
+                                .finishReason(completion.getFinishReason())
+                                .build();
+                    } catch (JsonProcessingException e) {
+                        log.error("Failed to parse keyword qualification response", e);
+                        invalidateCached(prompt, systemPrompt, maxTokens);
+                        // Return conservative qualifications
+                        List<KeywordQualification> fallback = suggestions.stream()
+                                .map(keyword -> KeywordQualification.builder()
+                                        .keyword(keyword)
+                                        .relevant(false)
+                                        .overlapsExisting(true)
+                                        .score(3.0)
+                                        .reasoning("Default low score due to parsing error")
+                                        .build())
+                                .collect(Collectors.toList());
+                        return KeywordQualificationBatch.builder()
+                                .qualifications(fallback)
+                                .usage(completion.getUsage())
+                                .finishReason(completion.getFinishReason())
+                                .parseFailed(true)
+                                .build();
+                    }
+                });
     }
     
     /**
@@ -108,29 +203,39 @@ public class LLMService {
     public KeywordSelectionResponse selectBestKeywordForArticle(
             List<PotentialKeyword> unwrittenKeywords, 
             Niche niche) {
+        return selectBestKeywordForArticleAsync(unwrittenKeywords, niche).block();
+    }
+    
+    public Mono<KeywordSelectionResponse> selectBestKeywordForArticleAsync(
+            List<PotentialKeyword> unwrittenKeywords, 
+            Niche niche) {
         
         String prompt = buildKeywordSelectionPrompt(unwrittenKeywords, niche);
         
-        String response = callLLM(prompt, "You are an SEO content strategist. " +
-                "Respond with valid JSON only, no markdown formatting.");
-        
-        try {
-            return objectMapper.readValue(response, KeywordSelectionResponse.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse keyword selection response", e);
-            // Fallback to highest scored keyword
-            PotentialKeyword best = unwrittenKeywords.stream()
-                    .max((a, b) -> Double.compare(
-                            a.getQualificationScore() != null ? a.getQualificationScore() : 0.0,
-                            b.getQualificationScore() != null ? b.getQualificationScore() : 0.0))
-                    .orElse(unwrittenKeywords.get(0));
-            
-            return KeywordSelectionResponse.builder()
-                    .selectedKeyword(best.getKeywordText())
-                    .reasoning("Selected highest scoring keyword due to parsing error")
-                    .contentAngle("Comprehensive guide")
-                    .build();
-        }
+        String systemPrompt = "You are an SEO content strategist. " +
+                "Respond with valid JSON only, no markdown formatting.";
+        
+        return callLLMCachedAsync(prompt, systemPrompt)
+                .map(response -> {
+                    try {
+                        return objectMapper.readValue(response, KeywordSelectionResponse.class);
+                    } catch (JsonProcessingException e) {
+                        log.error("Failed to parse keyword selection response", e);
+                        invalidateCached(prompt, systemPrompt, maxTokens);
+                        // Fallback to highest scored keyword
+                        PotentialKeyword best = unwrittenKeywords.stream()
+                                .max((a, b) -> Double.compare(
+                                        a.getQualificationScore() != null ? a.getQualificationScore() : 0.0,
+                                        b.getQualificationScore() != null ? b.getQualificationScore() : 0.0))
+                                .orElse(unwrittenKeywords.get(0));
+                        
+                        return KeywordSelectionResponse.builder()
+                                .selectedKeyword(best.getKeywordText())
+                                .reasoning("Selected highest scoring keyword due to parsing error")
+                                .contentAngle("Comprehensive guide")
+                                .build();
+                    }
+                });
     }
     
     /**
@@ -138,48 +243,74 @@ public class LLMService {
      */
     public SimilarityCheckResponse checkContentSimilarity(
             String newKeyword, 
-            List<Article> existingArticles) {
-        
-        String prompt = buildSimilarityCheckPrompt(newKeyword, existingArticles);
-        
-        String response = callLLM(prompt, "You are an SEO content analyst. " +
-                "Respond with valid JSON only, no markdown formatting.");
-        
-        try {
-            return objectMapper.readValue(response, SimilarityCheckResponse.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse similarity check response", e);
-            return SimilarityCheckResponse.builder()
-                    .similar(false)
-                    .reasoning("Unable to determine similarity")
-                    .similarityScore(0.5)
-                    .overlappingArticles(new ArrayList<>())
-                    .build();
-        }
+            List<ArticleMatch> nearestArticles) {
+        return checkContentSimilarityAsync(newKeyword, nearestArticles).block();
+    }
+    
+    public Mono<SimilarityCheckResponse> checkContentSimilarityAsync(
+            String newKeyword, 
+            List<ArticleMatch> nearestArticles) {
+        
+        String prompt = buildSimilarityCheckPrompt(newKeyword, nearestArticles);
+        
+        String systemPrompt = "You are an SEO content analyst. " +
+                "Respond with valid JSON only, no markdown formatting.";
+        
+        return callLLMCachedAsync(prompt, systemPrompt)
+                .map(response -> {
+                    try {
+                        return objectMapper.readValue(response, SimilarityCheckResponse.class);
+                    } catch (JsonProcessingException e) {
+                        log.error("Failed to parse similarity check response", e);
+                        invalidateCached(prompt, systemPrompt, maxTokens);
+                        return SimilarityCheckResponse.builder()
+                                .similar(false)
+                                .reasoning("Unable to determine similarity")
+                                .similarityScore(0.5)
+                                .overlappingArticles(new ArrayList<>())
+                                .build();
+                    }
+                });
     }
     
     /**
      * Generates article content
      */
     public ArticleContent generateArticle(PotentialKeyword keyword, Niche niche) {
+        return generateArticleAsync(keyword, niche).block();
+    }
+    
+    public Mono<ArticleContent> generateArticleAsync(PotentialKeyword keyword, Niche niche) {
         
         String prompt = buildArticleGenerationPrompt(keyword, niche);
         
-        String response = callLLM(prompt, "You are an expert SEO content writer. " +
-                "Respond with valid JSON only, no markdown formatting.", 8000);
+        return callLLMAsync(prompt, "You are an expert SEO content writer. " +
+                "Respond with valid JSON only, no markdown formatting.", 8000)
+                .map(response -> {
+                    try {
+                        return objectMapper.readValue(response, ArticleContent.class);
+                    } catch (JsonProcessingException e) {
+                        log.error("Failed to parse article generation response", e);
+                        // Return minimal article
+                        return ArticleContent.builder()
+                                .title("Guide to " + keyword.getKeywordText())
+                                .metaDescription("Learn everything about " + keyword.getKeywordText())
+                                .content("Article generation failed. Please try again.")
+                                .estimatedWordCount(0)
+                                .build();
+                    }
+                });
+    }
+    
+    /**
+     * Streams an article as raw text in the sectioned format described by
+     * {@link #buildStreamingArticlePrompt}, so it can be persisted while it is written
+     */
+    public Flux<String> streamArticle(PotentialKeyword keyword, Niche niche) {
+        String prompt = buildStreamingArticlePrompt(keyword, niche);
         
-        try {
-            return objectMapper.readValue(response, ArticleContent.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse article generation response", e);
-            // Return minimal article
-            return ArticleContent.builder()
-                    .title("Guide to " + keyword.getKeywordText())
-                    .metaDescription("Learn everything about " + keyword.getKeywordText())
-                    .content("Article generation failed. Please try again.")
-                    .estimatedWordCount(0)
-                    .build();
-        }
+        return streamCompletion(prompt, "You are an expert SEO content writer. " +
+                "Follow the requested output format exactly, no markdown code fences.", 8000);
     }
     
     /**
@@ -191,30 +322,42 @@ public class LLMService {
             int articlesGenerated,
             Niche niche,
             List<PotentialKeyword> recentKeywords) {
+        return generateDailySummaryAsync(
+                keywordsDiscovered, keywordsQualified, articlesGenerated, niche, recentKeywords).block();
+    }
+    
+    public Mono<DailySummary> generateDailySummaryAsync(
+            int keywordsDiscovered,
+            int keywordsQualified,
+            int articlesGenerated,
+            Niche niche,
+            List<PotentialKeyword> recentKeywords) {
         
         String prompt = buildDailySummaryPrompt(
                 keywordsDiscovered, keywordsQualified, articlesGenerated, niche, recentKeywords);
         
-        String response = callLLM(prompt, "You are an SEO strategist summarizing daily progress. " +
-                "Respond with valid JSON only, no markdown formatting.");
-        
-        try {
-            return objectMapper.readValue(response, DailySummary.class);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse daily summary response", e);
-            return DailySummary.builder()
-                    .summary("Daily workflow completed")
-                    .keywordsDiscovered(keywordsDiscovered)
-                    .keywordsQualified(keywordsQualified)
-                    .articlesGenerated(articlesGenerated)
-                    .nextSteps("Continue keyword exploration")
-                    .build();
-        }
+        return callLLMAsync(prompt, "You are an SEO strategist summarizing daily progress. " +
+                "Respond with valid JSON only, no markdown formatting.")
+                .map(response -> {
+                    try {
+                        return objectMapper.readValue(response, DailySummary.class);
+                    } catch (JsonProcessingException e) {
+                        log.error("Failed to parse daily summary response", e);
+                        return DailySummary.builder()
+                                .summary("Daily workflow completed")
+                                .keywordsDiscovered(keywordsDiscovered)
+                                .keywordsQualified(keywordsQualified)
+                                .articlesGenerated(articlesGenerated)
+                                .nextSteps("Continue keyword exploration")
+                                .build();
+                    }
+                });
     }
     
     // ==================== PROMPT BUILDERS ====================
     
-    private String buildExplorationStrategyPrompt(Niche niche, List<PotentialKeyword> existingKeywords) {
+    private String buildExplorationStrategyPrompt(
+            Niche niche, List<PotentialKeyword> existingKeywords, List<KeywordTreeNode> frontier) {
         StringBuilder sb = new StringBuilder();
         sb.append("Niche: ").append(niche.getNicheName()).append("\n");
         sb.append("Description: ").append(niche.getDescription()).append("\n\n");
@@ -231,6 +374,14 @@ public class LLMService {
             sb.append("No existing keywords yet. This is the initial exploration.\n");
         }
         
+        if (!frontier.isEmpty()) {
+            sb.append("\nMost promising keywords not explored further yet:\n");
+            frontier.forEach(node -> sb.append("- ").append(node.getKeywordText())
+                    .append(" (depth: ").append(node.getDepthLevel())
+                    .append(", score: ").append(node.getQualificationScore())
+                    .append(")\n"));
+        }
+        
         sb.append("\nBased on this niche and keyword tree, decide today's exploration strategy.\n");
         sb.append("Should we:\n");
         sb.append("1. Go deeper on promising branches (explore child keywords of high-scoring keywords)\n");
@@ -310,14 +461,14 @@ public class LLMService {
         return sb.toString();
     }
     
-    private String buildSimilarityCheckPrompt(String newKeyword, List<Article> existingArticles) {
+    private String buildSimilarityCheckPrompt(String newKeyword, List<ArticleMatch> nearestArticles) {
         StringBuilder sb = new StringBuilder();
         sb.append("New keyword: ").append(newKeyword).append("\n\n");
         
-        sb.append("Existing articles:\n");
-        existingArticles.forEach(article -> 
-                sb.append("- Title: ").append(article.getTitle())
-                        .append(" | Keyword: ").append(article.getKeyword().getKeywordText())
+        sb.append("Closest existing articles:\n");
+        nearestArticles.forEach(match -> 
+                sb.append("- Title: ").append(match.getTitle())
+                        .append(" | Keyword: ").append(match.getKeywordText())
                         .append("\n"));
         
         sb.append("\nDoes the new keyword '").append(newKeyword).append("' ");
@@ -336,6 +487,37 @@ public class LLMService {
     
     private String buildArticleGenerationPrompt(PotentialKeyword keyword, Niche niche) {
         StringBuilder sb = new StringBuilder();
+        appendArticleBrief(sb, keyword, niche);
+        
+        sb.append("Respond with JSON in this format:\n");
+        sb.append("{\n");
+        sb.append("  \"title\": \"SEO-optimized title\",\n");
+        sb.append("  \"metaDescription\": \"compelling 150-160 char meta description\",\n");
+        sb.append("  \"content\": \"full article content in HTML format\",\n");
+        sb.append("  \"estimatedWordCount\": 2000\n");
+        sb.append("}");
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Plain sectioned output instead of JSON: the header lines arrive first and the
+     * article body can be stored as it streams in
+     */
+    private String buildStreamingArticlePrompt(PotentialKeyword keyword, Niche niche) {
+        StringBuilder sb = new StringBuilder();
+        appendArticleBrief(sb, keyword, niche);
+        
+        sb.append("Respond in exactly this format:\n");
+        sb.append("TITLE: SEO-optimized title\n");
+        sb.append("META: compelling 150-160 char meta description\n");
+        sb.append("---\n");
+        sb.append("full article content in HTML format");
+        
+        return sb.toString();
+    }
+    
+    private void appendArticleBrief(StringBuilder sb, PotentialKeyword keyword, Niche niche) {
         sb.append("Write a comprehensive, SEO-optimized article for:\n\n");
         sb.append("Niche: ").append(niche.getNicheName()).append("\n");
         sb.append("Target Keyword: ").append(keyword.getKeywordText()).append("\n");
@@ -348,16 +530,6 @@ public class LLMService {
         sb.append("- Provide actionable, valuable information\n");
         sb.append("- Write in a clear, engaging style\n");
         sb.append("- Include an introduction and conclusion\n\n");
-        
-        sb.append("Respond with JSON in this format:\n");
-        sb.append("{\n");
-        sb.append("  \"title\": \"SEO-optimized title\",\n");
-        sb.append("  \"metaDescription\": \"compelling 150-160 char meta description\",\n");
-        sb.append("  \"content\": \"full article content in HTML format\",\n");
-        sb.append("  \"estimatedWordCount\": 2000\n");
-        sb.append("}");
-        
-        return sb.toString();
     }
     
     private String buildDailySummaryPrompt(
@@ -393,67 +565,238 @@ public class LLMService {
     
     // ==================== LLM API CALL ====================
     
-    private String callLLM(String prompt, String systemPrompt) {
-        return callLLM(prompt, systemPrompt, maxTokens);
+    private Mono<String> callLLMAsync(String prompt, String systemPrompt) {
+        return callLLMAsync(prompt, systemPrompt, maxTokens);
     }
     
-    private String callLLM(String prompt, String systemPrompt, Integer tokens) {
-        try {
-            // Build request in OpenAI/Groq format
-            Map<String, Object> request = new HashMap<>();
-            request.put("model", model);
-            request.put("max_tokens", tokens);
-            request.put("temperature", temperature);
-            
-            // Build messages array with system and user messages
-            List<Map<String, String>> messages = new ArrayList<>();
-            messages.add(Map.of("role", "system", "content", systemPrompt));
-            messages.add(Map.of("role", "user", "content", prompt));
-            request.put("messages", messages);
-            
-            // Make API call with proper Authorization header
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = webClient.post()
-                    .uri(apiUrl)
-                    .header("Authorization", "Bearer " + apiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(60))
-                    .block();
+    private Mono<String> callLLMAsync(String prompt, String systemPrompt, Integer tokens) {
+        return completeAsync(prompt, systemPrompt, tokens, false).map(CompletionResult::getContent);
+    }
+    
+    /**
+     * For deterministic prompts whose answer can be reused between retries and re-runs
+     */
+    private Mono<String> callLLMCachedAsync(String prompt, String systemPrompt) {
+        return completeAsync(prompt, systemPrompt, maxTokens, true).map(CompletionResult::getContent);
+    }
+    
+    /**
+     * Serves cacheable prompts from the response cache; truncated completions are never cached
+     */
+    private Mono<CompletionResult> completeAsync(
+            String prompt, String systemPrompt, Integer tokens, boolean cacheable) {
+        
+        if (!responseCache.isEnabled()) {
+            return requestCompletion(prompt, systemPrompt, tokens);
+        }
+        if (!cacheable) {
+            responseCache.recordBypass();
+            return requestCompletion(prompt, systemPrompt, tokens);
+        }
+        
+        String key = responseCache.cacheKey(model, temperature, tokens, systemPrompt, prompt);
+        
+        return Mono.fromCallable(() -> responseCache.get(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cached -> cached
+                        .map(Mono::just)
+                        .orElseGet(() -> requestCompletion(prompt, systemPrompt, tokens)
+                                .flatMap(result -> "length".equals(result.getFinishReason())
+                                        ? Mono.just(result)
+                                        : Mono.fromRunnable(() -> responseCache.put(key, model, result))
+                                                .subscribeOn(Schedulers.boundedElastic())
+                                                .thenReturn(result))));
+    }
+    
+    private void invalidateCached(String prompt, String systemPrompt, Integer tokens) {
+        if (responseCache.isEnabled()) {
+            String key = responseCache.cacheKey(model, temperature, tokens, systemPrompt, prompt);
+            Mono.fromRunnable(() -> responseCache.invalidate(key))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe();
+        }
+    }
+    
+    private Mono<CompletionResult> requestCompletion(String prompt, String systemPrompt, Integer tokens) {
+        // Build request in OpenAI/Groq format
+        ChatCompletionRequest request = ChatCompletionRequest.builder()
+                .model(model)
+                .maxTokens(tokens)
+                .temperature(temperature)
+                .messages(List.of(
+                        new Message("system", systemPrompt),
+                        new Message("user", prompt)))
+                .build();
+        
+        int estimatedPromptTokens = estimatePromptTokens(prompt, systemPrompt);
+        
+        // In-flight cap keeps concurrent pipelines from flooding the connection pool
+        return acquirePermits(estimatedPromptTokens)
+                .then(inFlightLimiter.withPermit(() -> {
+                    long start = System.currentTimeMillis();
+                    return webClient.post()
+                            .uri(apiUrl)
+                            .header("Authorization", "Bearer " + apiKey)
+                            .header("Content-Type", "application/json")
+                            .bodyValue(request)
+                            .retrieve()
+                            .bodyToMono(ChatCompletionResponse.class)
+                            .timeout(Duration.ofSeconds(timeoutSeconds))
+                            .map(response -> {
+                                chargeActualTokens(response.getUsage(), estimatedPromptTokens);
+                                String content = cleanContent(response.getMessageContent());
+                                if (content == null) {
+                                    throw new RuntimeException("Empty response from LLM");
+                                }
+                                return CompletionResult.builder()
+                                        .content(content)
+                                        .finishReason(response.getFinishReason())
+                                        .usage(response.getUsage())
+                                        .latencyMs(System.currentTimeMillis() - start)
+                                        .build();
+                            });
+                }))
+                .retryWhen(throttleRetry())
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response from LLM")))
+                .onErrorMap(e -> {
+                    log.error("Error calling LLM API", e);
+                    return new RuntimeException("Failed to call LLM: " + e.getMessage(), e);
+                });
+    }
+    
+    /**
+     * Streams a completion as text deltas. The in-flight permit is held for the whole stream,
+     * and the timeout applies between chunks rather than to the full generation.
+     */
+    private Flux<String> streamCompletion(String prompt, String systemPrompt, Integer tokens) {
+        ChatCompletionRequest request = ChatCompletionRequest.builder()
+                .model(model)
+                .maxTokens(tokens)
+                .temperature(temperature)
+                .messages(List.of(
+                        new Message("system", systemPrompt),
+                        new Message("user", prompt)))
+                .stream(true)
+                .build();
+        
+        int estimatedPromptTokens = estimatePromptTokens(prompt, systemPrompt);
+        
+        return Flux.defer(() -> {
+            AtomicReference<Usage> reportedUsage = new AtomicReference<>();
+            AtomicLong streamedChars = new AtomicLong();
             
-            // Extract content from response
-            if (response != null && response.containsKey("choices")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
-                if (!choices.isEmpty()) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                    String content = (String) message.get("content");
-                    
-                    // Clean up markdown code blocks if present
-                    if (content != null) {
-                        content = content.trim();
-                        if (content.startsWith("```json")) {
-                            content = content.substring(7);
-                        }
-                        if (content.startsWith("```")) {
-                            content = content.substring(3);
-                        }
-                        if (content.endsWith("```")) {
-                            content = content.substring(0, content.length() - 3);
+            return acquirePermits(estimatedPromptTokens)
+                    .thenMany(inFlightLimiter.withPermitMany(() -> webClient.post()
+                            .uri(apiUrl)
+                            .header("Authorization", "Bearer " + apiKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .bodyValue(request)
+                            .retrieve()
+                            .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() { })
+                            .timeout(Duration.ofSeconds(streamIdleTimeoutSeconds))
+                            .mapNotNull(ServerSentEvent::data)
+                            .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                            .mapNotNull(data -> {
+                                ChatCompletionChunk chunk = parseChunk(data);
+                                if (chunk == null) {
+                                    return null;
+                                }
+                                if (chunk.getUsage() != null) {
+                                    reportedUsage.set(chunk.getUsage());
+                                }
+                                String delta = chunk.getDeltaContent();
+                                if (delta != null) {
+                                    streamedChars.addAndGet(delta.length());
+                                }
+                                return delta == null || delta.isEmpty() ? null : delta;
+                            })))
+                    .retryWhen(throttleRetry())
+                    .doFinally(signal -> {
+                        Usage usage = reportedUsage.get();
+                        if (usage == null) {
+                            int outputTokens = (int) (streamedChars.get() / CHARS_PER_TOKEN);
+                            usage = new Usage(estimatedPromptTokens, outputTokens, estimatedPromptTokens + outputTokens);
                         }
-                        return content.trim();
-                    }
-                }
-            }
-            
-            throw new RuntimeException("Empty response from LLM");
-            
-        } catch (Exception e) {
-            log.error("Error calling LLM API", e);
-            throw new RuntimeException("Failed to call LLM: " + e.getMessage(), e);
+                        chargeActualTokens(usage, estimatedPromptTokens);
+                    });
+        }).onErrorMap(e -> {
+            log.error("Error streaming from LLM API", e);
+            return new RuntimeException("Failed to stream from LLM: " + e.getMessage(), e);
+        });
+    }
+    
+    private ChatCompletionChunk parseChunk(String data) {
+        try {
+            return objectMapper.readValue(data, ChatCompletionChunk.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unparseable stream chunk: {}", data);
+            return null;
+        }
+    }
+    
+    private int estimatePromptTokens(String prompt, String systemPrompt) {
+        return (systemPrompt.length() + prompt.length()) / CHARS_PER_TOKEN;
+    }
+    
+    /**
+     * Permits are re-acquired on every attempt, so a 429 pause applies to the retry as well
+     */
+    private Mono<Void> acquirePermits(int estimatedPromptTokens) {
+        return Mono.when(
+                rateGovernor.acquireAsync(RateGovernor.LLM_REQUESTS, 1),
+                rateGovernor.acquireAsync(RateGovernor.LLM_TOKENS, estimatedPromptTokens));
+    }
+    
+    private Retry throttleRetry() {
+        return Retry.max(maxRetries)
+                .filter(e -> e instanceof WebClientResponseException.TooManyRequests)
+                .doBeforeRetry(signal -> rateGovernor.onThrottled(RateGovernor.LLM_REQUESTS,
+                        ((WebClientResponseException) signal.failure()).getHeaders()
+                                .getFirst(HttpHeaders.RETRY_AFTER),
+                        signal.totalRetries()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+    
+    /**
+     * Settles the token bucket against the usage the API reported for a call
+     */
+    private void chargeActualTokens(Usage usage, int estimatedPromptTokens) {
+        if (usage == null) {
+            return;
+        }
+        int actual = usage.getTotalTokens() != null
+                ? usage.getTotalTokens()
+                : (usage.getInputTokens() != null ? usage.getInputTokens() : 0)
+                        + (usage.getOutputTokens() != null ? usage.getOutputTokens() : 0);
+        rateGovernor.charge(RateGovernor.LLM_TOKENS, actual - estimatedPromptTokens);
+    }
+    
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+    
+    public LlmCacheStats getResponseCacheStats() {
+        return responseCache.getStats();
+    }
+    
+    /**
+     * Strips markdown code fences the model sometimes wraps around JSON
+     */
+    private String cleanContent(String content) {
+        if (content == null) {
+            return null;
+        }
+        content = content.trim();
+        if (content.startsWith("```json")) {
+            content = content.substring(7);
+        }
+        if (content.startsWith("```")) {
+            content = content.substring(3);
+        }
+        if (content.endsWith("```")) {
+            content = content.substring(0, content.length() - 3);
         }
+        return content.trim();
     }
-}
\ No newline at end of file
+}
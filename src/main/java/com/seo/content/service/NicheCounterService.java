@@ -0,0 +1,108 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.KeywordUpsertResult;
+import com.seo.content.model.KeywordStatus;
+import com.seo.content.model.PotentialKeyword;
+import com.seo.content.repository.NicheCountersRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the niche_stats counters. The record methods issue atomic increments and
+ * must be called inside the transaction that changes the counted rows, so a rollback
+ * undoes the counter change too.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NicheCounterService {
+
+    private final NicheCountersRepository countersRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Seeds counters for niches that have none yet, e.g. data written before the table existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingCounters() {
+        List<Long> nicheIds = countersRepository.findNicheIdsWithoutCounters();
+        for (Long nicheId : nicheIds) {
+            rebuild(nicheId);
+        }
+        if (!nicheIds.isEmpty()) {
+            log.info("Built niche counters for {} niches", nicheIds.size());
+        }
+    }
+
+    /**
+     * Recomputes a niche's counters from the base tables. Increments that commit
+     * while this runs may be lost, so only use it while the niche is idle.
+     */
+    public void rebuild(Long nicheId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            countersRepository.deleteDepthCounts(nicheId);
+            countersRepository.deleteCounters(nicheId);
+            countersRepository.insertFromBaseTables(nicheId);
+            countersRepository.insertDepthCountsFromBaseTables(nicheId);
+        });
+    }
+
+    public void recordKeywordsSaved(Long nicheId, List<PotentialKeyword> keywords) {
+        if (keywords.isEmpty()) {
+            return;
+        }
+        long unwritten = 0;
+        long written = 0;
+        long rejected = 0;
+        long scored = 0;
+        double scoreSum = 0;
+        Map<Integer, Long> byDepth = new TreeMap<>();
+
+        for (PotentialKeyword keyword : keywords) {
+            switch (keyword.getStatus()) {
+                case UNWRITTEN -> unwritten++;
+                case WRITTEN -> written++;
+                case REJECTED -> rejected++;
+            }
+            if (keyword.getQualificationScore() != null) {
+                scored++;
+                scoreSum += keyword.getQualificationScore();
+            }
+            byDepth.merge(keyword.getDepthLevel(), 1L, Long::sum);
+        }
+
+        countersRepository.increment(nicheId, keywords.size(), unwritten, written, rejected, scored, scoreSum, 0);
+        byDepth.forEach((depth, count) -> countersRepository.incrementDepth(nicheId, depth, count));
+    }
+
+    /**
+     * Applies the score raises and REJECTED to UNWRITTEN promotions of merged keywords
+     */
+    public void recordKeywordsMerged(Long nicheId, KeywordUpsertResult result) {
+        if (result.getMerged() == 0) {
+            return;
+        }
+        countersRepository.increment(nicheId, 0, result.getPromoted(), 0, -result.getPromoted(),
+                result.getMergedNewlyScored(), result.getMergedScoreDelta(), 0);
+    }
+
+    public void recordKeywordWritten(Long nicheId, KeywordStatus previousStatus) {
+        countersRepository.increment(nicheId, 0,
+                previousStatus == KeywordStatus.UNWRITTEN ? -1 : 0,
+                1,
+                previousStatus == KeywordStatus.REJECTED ? -1 : 0,
+                0, 0, 0);
+    }
+
+    public void recordArticlesAdded(Long nicheId, long count) {
+        countersRepository.increment(nicheId, 0, 0, 0, 0, 0, 0, count);
+    }
+}
@@ -0,0 +1,106 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.NicheStats;
+import com.seo.content.model.KeywordStatus;
+import com.seo.content.model.NicheCounters;
+import com.seo.content.model.NicheDepthCount;
+import com.seo.content.repository.NicheCountersRepository;
+import com.seo.content.repository.NicheDepthCountRepository;
+import com.seo.content.repository.PotentialKeywordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-niche keyword and article statistics. The regular view reads the maintained
+ * counters; the detailed view adds score percentiles from one grouped aggregate query.
+ */
+@Service
+@RequiredArgsConstructor
+public class NicheStatsService {
+
+    private final PotentialKeywordRepository keywordRepository;
+    private final NicheCountersRepository countersRepository;
+    private final NicheDepthCountRepository depthCountRepository;
+    private final NicheCounterService nicheCounterService;
+
+    /**
+     * Reads the niche_stats counters, building them first if the niche has none yet
+     */
+    public NicheStats getStats(Long nicheId) {
+        NicheCounters counters = countersRepository.findById(nicheId).orElse(null);
+        if (counters == null) {
+            nicheCounterService.rebuild(nicheId);
+            counters = countersRepository.findById(nicheId)
+                    .orElseThrow(() -> new RuntimeException("Counters not found for niche: " + nicheId));
+        }
+
+        Map<KeywordStatus, Long> byStatus = new EnumMap<>(KeywordStatus.class);
+        byStatus.put(KeywordStatus.UNWRITTEN, counters.getUnwrittenKeywords());
+        byStatus.put(KeywordStatus.WRITTEN, counters.getWrittenKeywords());
+        byStatus.put(KeywordStatus.REJECTED, counters.getRejectedKeywords());
+
+        Map<Integer, Long> byDepth = new TreeMap<>();
+        int maxDepth = 0;
+        for (NicheDepthCount depthCount : depthCountRepository.findByNicheIdOrderByDepthLevel(nicheId)) {
+            if (depthCount.getKeywordCount() > 0) {
+                byDepth.put(depthCount.getDepthLevel(), depthCount.getKeywordCount());
+                maxDepth = Math.max(maxDepth, depthCount.getDepthLevel());
+            }
+        }
+
+        return NicheStats.builder()
+                .nicheId(nicheId)
+                .totalKeywords(counters.getTotalKeywords())
+                .keywordsByStatus(byStatus)
+                .keywordsByDepth(byDepth)
+                .maxDepthLevel(maxDepth)
+                .averageQualificationScore(counters.getScoredKeywords() > 0
+                        ? counters.getScoreSum() / counters.getScoredKeywords() : 0.0)
+                .totalArticles(counters.getTotalArticles())
+                .build();
+    }
+
+    /**
+     * Computes everything from the base tables in one pass, including score percentiles
+     */
+    public NicheStats getDetailedStats(Long nicheId) {
+        Map<KeywordStatus, Long> byStatus = new EnumMap<>(KeywordStatus.class);
+        for (KeywordStatus status : KeywordStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        Map<Integer, Long> byDepth = new TreeMap<>();
+        NicheStats stats = NicheStats.builder()
+                .nicheId(nicheId)
+                .keywordsByStatus(byStatus)
+                .keywordsByDepth(byDepth)
+                .build();
+
+        for (Object[] row : keywordRepository.aggregateNicheStats(nicheId)) {
+            boolean statusRolledUp = intValue(row[0]) == 1;
+            boolean depthRolledUp = intValue(row[1]) == 1;
+            long count = ((Number) row[4]).longValue();
+
+            if (statusRolledUp && depthRolledUp) {
+                stats.setTotalKeywords(count);
+                stats.setAverageQualificationScore(row[5] != null ? ((Number) row[5]).doubleValue() : 0.0);
+                stats.setMedianQualificationScore(row[6] != null ? ((Number) row[6]).doubleValue() : null);
+                stats.setP90QualificationScore(row[7] != null ? ((Number) row[7]).doubleValue() : null);
+                stats.setMaxDepthLevel(row[8] != null ? intValue(row[8]) : 0);
+                stats.setTotalArticles(((Number) row[9]).longValue());
+            } else if (!statusRolledUp) {
+                byStatus.put(KeywordStatus.valueOf((String) row[2]), count);
+            } else {
+                byDepth.put(intValue(row[3]), count);
+            }
+        }
+        return stats;
+    }
+
+    private static int intValue(Object value) {
+        return ((Number) value).intValue();
+    }
+}
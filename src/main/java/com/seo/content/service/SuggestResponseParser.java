@@ -0,0 +1,65 @@
+package com.seo.content.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for Google Suggest responses.
+ * Reads the body straight from the byte stream with Jackson's token parser
+ * (which recycles its internal buffers) and stops once the suggestion array ends.
+ */
+@Component
+public class SuggestResponseParser {
+    
+    private final JsonFactory jsonFactory;
+    
+    public SuggestResponseParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+    
+    /**
+     * Parses ["query",["suggestion1","suggestion2",...],...] and returns the suggestions
+     */
+    public List<String> parse(InputStream body) throws IOException {
+        List<String> suggestions = new ArrayList<>();
+        
+        if (body == null) {
+            return suggestions;
+        }
+        
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return suggestions;
+            }
+            
+            // First element echoes the query
+            if (parser.nextToken() == null) {
+                return suggestions;
+            }
+            parser.skipChildren();
+            
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return suggestions;
+            }
+            
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token == JsonToken.VALUE_STRING) {
+                    suggestions.add(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        
+        return suggestions;
+    }
+}
@@ -0,0 +1,342 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.KeywordExplorationResponse;
+import com.seo.content.dto.WorkflowContext;
+import com.seo.content.dto.WorkflowJobStatus;
+import com.seo.content.dto.WorkflowJobStatus.JobState;
+import com.seo.content.dto.WorkflowJobStatus.JobType;
+import com.seo.content.model.WorkflowRun;
+import com.seo.content.model.WorkflowStage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs long workflows as background jobs so HTTP requests return immediately.
+ * Job state lives in memory; progress is pushed to SSE subscribers as it happens,
+ * and the durable record of a daily run stays in workflow_runs.
+ */
+@Service
+@Slf4j
+public class WorkflowJobService {
+
+    private final ContentOrchestrationService orchestrationService;
+    private final ExecutorService jobExecutor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Niche id to the unfinished daily or resume job that holds it; claimed atomically
+    private final Map<Long, String> workflowClaims = new ConcurrentHashMap<>();
+    private final Duration retention;
+    private final long sseTimeoutMs;
+
+    public WorkflowJobService(
+            ContentOrchestrationService orchestrationService,
+            @Qualifier("workflowJobExecutor") ExecutorService jobExecutor,
+            @Value("${workflow.jobs.retention-minutes:60}") long retentionMinutes,
+            @Value("${workflow.jobs.sse-timeout-minutes:30}") long sseTimeoutMinutes) {
+        this.orchestrationService = orchestrationService;
+        this.jobExecutor = jobExecutor;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.sseTimeoutMs = Duration.ofMinutes(sseTimeoutMinutes).toMillis();
+    }
+
+    /**
+     * Queues the daily workflow for a niche; an unfinished workflow job for the same niche is returned instead
+     */
+    public WorkflowJobStatus submitDailyWorkflow(Long nicheId) {
+        return submitClaimed(JobType.DAILY_WORKFLOW, nicheId, listener -> {
+            WorkflowRun run = orchestrationService.executeDailyWorkflow(nicheId, listener);
+            return "Daily workflow completed (run " + run.getId() + ")";
+        });
+    }
+
+    /**
+     * Queues a resume; like the daily workflow, it is deduplicated per niche
+     */
+    public WorkflowJobStatus submitResume(Long runId, Long nicheId) {
+        return submitClaimed(JobType.RESUME_WORKFLOW, nicheId, listener -> {
+            WorkflowRun run = orchestrationService.resumeWorkflow(runId, listener);
+            return "Workflow run " + run.getId() + " resumed and completed";
+        });
+    }
+
+    public WorkflowJobStatus submitKeywordExploration(Long nicheId, List<String> seedKeywords, int depth) {
+        return submit(JobType.KEYWORD_EXPLORATION, nicheId, listener -> {
+            KeywordExplorationResponse result = orchestrationService.exploreKeywordsOnly(
+                    nicheId, seedKeywords, depth, listener);
+            return result.getMessage();
+        });
+    }
+
+    public Optional<WorkflowJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::snapshot);
+    }
+
+    /**
+     * Opens an event stream for a job. The current status is sent right away;
+     * the stream completes when the job finishes.
+     */
+    public Optional<SseEmitter> subscribe(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+
+        WorkflowJobStatus status = job.snapshot();
+        if (!send(emitter, "status", status)) {
+            return Optional.of(emitter);
+        }
+        if (status.isFinished()) {
+            emitter.complete();
+        } else {
+            job.emitters.add(emitter);
+            // The job may have finished between the snapshot and registration
+            if (job.isFinished() && job.emitters.remove(emitter)) {
+                send(emitter, eventName(job.snapshot()), job.snapshot());
+                emitter.complete();
+            }
+        }
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Drops finished jobs once their retention period has passed
+     */
+    @Scheduled(fixedDelayString = "${workflow.jobs.cleanup-interval-ms:300000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            WorkflowJobStatus status = job.snapshot();
+            return status.isFinished() && status.getFinishedAt().isBefore(cutoff);
+        });
+    }
+
+    /**
+     * Submits a workflow job only if it can claim the niche; otherwise returns the job holding the claim.
+     * The claim is released when the job finishes.
+     */
+    private WorkflowJobStatus submitClaimed(JobType type, Long nicheId,
+                                            Function<WorkflowProgressListener, String> work) {
+        Job job = new Job(UUID.randomUUID().toString(), type, nicheId, true);
+        // Registered before claiming, so a claim always points at a job that can be looked up
+        jobs.put(job.jobId, job);
+        while (true) {
+            String holder = workflowClaims.putIfAbsent(nicheId, job.jobId);
+            if (holder == null) {
+                return submit(job, work);
+            }
+            Job active = jobs.get(holder);
+            if (active != null) {
+                jobs.remove(job.jobId);
+                return active.snapshot();
+            }
+            // The holder was rejected by the executor and has just released its claim; try again
+        }
+    }
+
+    private WorkflowJobStatus submit(JobType type, Long nicheId, Function<WorkflowProgressListener, String> work) {
+        return submit(new Job(UUID.randomUUID().toString(), type, nicheId, false), work);
+    }
+
+    private WorkflowJobStatus submit(Job job, Function<WorkflowProgressListener, String> work) {
+        JobType type = job.type;
+        Long nicheId = job.nicheId;
+        jobs.put(job.jobId, job);
+
+        try {
+            jobExecutor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            releaseClaim(job);
+            jobs.remove(job.jobId);
+            throw new RuntimeException("Workflow job queue is full, try again later", e);
+        }
+
+        log.info("Queued {} job {} for niche ID: {}", type, job.jobId, nicheId);
+        return job.snapshot();
+    }
+
+    private void run(Job job, Function<WorkflowProgressListener, String> work) {
+        job.update(status -> {
+            status.setState(JobState.RUNNING);
+            status.setStartedAt(LocalDateTime.now());
+        });
+        publish(job, "status");
+
+        try {
+            String message = work.apply(new JobProgressListener(job));
+            job.update(status -> {
+                status.setState(JobState.SUCCEEDED);
+                status.setMessage(message);
+                status.setFinishedAt(LocalDateTime.now());
+            });
+        } catch (Exception e) {
+            log.error("{} job {} failed", job.type, job.jobId, e);
+            job.update(status -> {
+                status.setState(JobState.FAILED);
+                status.setMessage(e.getMessage());
+                status.setFinishedAt(LocalDateTime.now());
+            });
+        } finally {
+            releaseClaim(job);
+        }
+
+        WorkflowJobStatus finalStatus = job.snapshot();
+        for (SseEmitter emitter : job.emitters) {
+            // Whoever removes the emitter first (here or in subscribe) sends the final event
+            if (job.emitters.remove(emitter)) {
+                send(emitter, eventName(finalStatus), finalStatus);
+                emitter.complete();
+            }
+        }
+    }
+
+    private void releaseClaim(Job job) {
+        if (job.claimsNiche) {
+            workflowClaims.remove(job.nicheId, job.jobId);
+        }
+    }
+
+    private void publish(Job job, String eventName) {
+        if (job.emitters.isEmpty()) {
+            return;
+        }
+        WorkflowJobStatus status = job.snapshot();
+        for (SseEmitter emitter : job.emitters) {
+            if (!send(emitter, eventName, status)) {
+                job.emitters.remove(emitter);
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String eventName, WorkflowJobStatus status) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(status));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the job carries on regardless
+            log.debug("Dropping SSE subscriber for job {}: {}", status.getJobId(), e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private String eventName(WorkflowJobStatus status) {
+        return status.getState() == JobState.FAILED ? "failed" : "completed";
+    }
+
+    /**
+     * Copies workflow progress into the job status and pushes it to subscribers
+     */
+    private class JobProgressListener implements WorkflowProgressListener {
+
+        private final Job job;
+
+        private JobProgressListener(Job job) {
+            this.job = job;
+        }
+
+        @Override
+        public void onRunStarted(Long runId) {
+            job.update(status -> status.setRunId(runId));
+            publish(job, "status");
+        }
+
+        @Override
+        public void onStageStarted(WorkflowStage stage, WorkflowContext context) {
+            job.update(status -> {
+                status.setStage(stage);
+                copyCounters(status, context);
+            });
+            publish(job, "stage");
+        }
+
+        @Override
+        public void onStageCompleted(WorkflowStage stage, WorkflowContext context) {
+            job.update(status -> copyCounters(status, context));
+            publish(job, "progress");
+        }
+
+        @Override
+        public void onProgress(WorkflowContext context) {
+            job.update(status -> copyCounters(status, context));
+            publish(job, "progress");
+        }
+
+        private void copyCounters(WorkflowJobStatus status, WorkflowContext context) {
+            status.setKeywordsDiscovered(context.getKeywordsDiscovered());
+            status.setSuggestionsProcessed(context.getSuggestionsProcessed());
+            status.setKeywordsQualified(context.getKeywordsQualified());
+            status.setKeywordsSaved(context.getKeywordsSaved());
+            status.setKeywordsSkipped(context.getKeywordsSkipped());
+            status.setKeywordsMerged(context.getKeywordsMerged());
+            status.setArticlesGenerated(context.getArticlesGenerated());
+            status.setArticleTitle(context.getArticleTitle());
+            status.setArticleCharacters(context.getArticleCharacters());
+        }
+    }
+
+    private static final class Job {
+
+        private final String jobId;
+        private final JobType type;
+        private final Long nicheId;
+        // Whether the job holds its niche's workflow claim
+        private final boolean claimsNiche;
+        private final WorkflowJobStatus status;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private Job(String jobId, JobType type, Long nicheId, boolean claimsNiche) {
+            this.jobId = jobId;
+            this.type = type;
+            this.nicheId = nicheId;
+            this.claimsNiche = claimsNiche;
+            this.status = WorkflowJobStatus.builder()
+                    .jobId(jobId)
+                    .type(type)
+                    .nicheId(nicheId)
+                    .state(JobState.QUEUED)
+                    .submittedAt(LocalDateTime.now())
+                    .build();
+        }
+
+        private synchronized void update(Consumer<WorkflowJobStatus> change) {
+            change.accept(status);
+        }
+
+        private synchronized boolean isFinished() {
+            return status.isFinished();
+        }
+
+        private synchronized WorkflowJobStatus snapshot() {
+            return new WorkflowJobStatus(
+                    status.getJobId(), status.getType(), status.getState(), status.getNicheId(),
+                    status.getRunId(), status.getStage(),
+                    status.getKeywordsDiscovered(), status.getSuggestionsProcessed(),
+                    status.getKeywordsQualified(), status.getKeywordsSaved(),
+                    status.getKeywordsSkipped(), status.getKeywordsMerged(),
+                    status.getArticlesGenerated(), status.getArticleTitle(), status.getArticleCharacters(),
+                    status.getMessage(), status.getSubmittedAt(), status.getStartedAt(), status.getFinishedAt());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.seo.content.service;
+
+import com.seo.content.dto.WorkflowContext;
+import com.seo.content.model.WorkflowStage;
+
+/**
+ * Receives workflow progress as it happens. Callbacks run on the workflow's own
+ * thread, so implementations should hand off anything slow.
+ */
+public interface WorkflowProgressListener {
+    
+    WorkflowProgressListener NONE = new WorkflowProgressListener() {
+    };
+    
+    default void onRunStarted(Long runId) {
+    }
+    
+    default void onStageStarted(WorkflowStage stage, WorkflowContext context) {
+    }
+    
+    default void onStageCompleted(WorkflowStage stage, WorkflowContext context) {
+    }
+    
+    /**
+     * Counters changed within a stage, e.g. after each qualification batch
+     */
+    default void onProgress(WorkflowContext context) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.seo.content.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordClustererTest {
+
+    private final KeywordClusterer clusterer = new KeywordClusterer(true, 0.8, 16, 4);
+
+    @Test
+    void reorderedAndInflectedKeywordsFoldTogether() {
+        List<KeywordCluster> clusters = clusterer.cluster(List.of(
+                "best gardening tools for beginners",
+                "gardening tools for beginners best",
+                "best gardening tool for beginner"));
+
+        assertThat(clusters).hasSize(1);
+        assertThat(clusters.get(0).representative()).isEqualTo("best gardening tools for beginners");
+    }
+
+    @Test
+    void directionalQueriesStayApart() {
+        assertSeparate("flights from london to paris", "flights from paris to london");
+        assertSeparate("dog food for cats", "cat food for dogs");
+        assertSeparate("python vs java", "python java");
+    }
+
+    @Test
+    void normalFormKeepsPrepositionsWithTheirObject() {
+        assertThat(KeywordClusterer.normalize("Flights from London to Paris"))
+                .isEqualTo("flight from>london to>pari");
+        assertThat(KeywordClusterer.normalize("dog food for the cats")).isEqualTo("dog food for>cat");
+        assertThat(KeywordClusterer.normalize("plants to grow with")).isEqualTo("plant to>grow with");
+    }
+
+    private void assertSeparate(String first, String second) {
+        assertThat(KeywordClusterer.normalize(first)).isNotEqualTo(KeywordClusterer.normalize(second));
+        assertThat(clusterer.cluster(List.of(first, second))).hasSize(2);
+    }
+}
@@ -0,0 +1,138 @@
+package com.seo.content.index;
+
+import com.seo.content.model.KeywordStatus;
+import com.seo.content.model.PotentialKeyword;
+import com.seo.content.repository.PotentialKeywordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeywordTreeIndexTest {
+
+    private static final Long NICHE = 1L;
+
+    private final PotentialKeywordRepository keywordRepository = mock(PotentialKeywordRepository.class);
+    private final KeywordTreeIndex index = new KeywordTreeIndex(keywordRepository);
+
+    /*
+     * 1 (5.0)            5 (7.0, parent 99 is not in the niche)    6 (5.5, parent 7 has a higher id)
+     * +-- 2 (8.0)                                                   +-- 7 (unscored)
+     * |   +-- 4 (9.0, rejected)
+     * +-- 3 (6.0)
+     */
+    @BeforeEach
+    void setUp() {
+        when(keywordRepository.findKeywordTreeRows(NICHE, 0L)).thenReturn(List.<Object[]>of(
+                row(1L, null, 0, 5.0, KeywordStatus.UNWRITTEN),
+                row(2L, 1L, 1, 8.0, KeywordStatus.UNWRITTEN),
+                row(3L, 1L, 1, 6.0, KeywordStatus.UNWRITTEN),
+                row(4L, 2L, 2, 9.0, KeywordStatus.REJECTED),
+                row(5L, 99L, 1, 7.0, KeywordStatus.UNWRITTEN),
+                row(6L, 7L, 0, 5.5, KeywordStatus.UNWRITTEN),
+                row(7L, 6L, 1, null, KeywordStatus.UNWRITTEN)));
+    }
+
+    @Test
+    void parentsResolveOnlyToLowerIdsInTheNiche() {
+        List<KeywordTreeNode> tree = index.subtree(NICHE, null, null, 100).orElseThrow();
+
+        assertThat(tree).extracting(KeywordTreeNode::getId).containsExactly(1L, 2L, 4L, 3L, 5L, 6L, 7L);
+        assertThat(tree).extracting(KeywordTreeNode::getParentId)
+                .containsExactly(null, 1L, 2L, 1L, null, null, 6L);
+        assertThat(index.path(NICHE, 7L).orElseThrow()).extracting(KeywordTreeNode::getId).containsExactly(6L, 7L);
+        assertThat(index.path(NICHE, 4L).orElseThrow()).extracting(KeywordTreeNode::getId)
+                .containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    void subtreeAggregatesCoverEveryDescendant() {
+        KeywordTreeNode root = node(1L);
+        assertThat(root.getChildCount()).isEqualTo(2);
+        assertThat(root.getSubtreeSize()).isEqualTo(4);
+        assertThat(root.getBestSubtreeScore()).isEqualTo(9.0);
+
+        assertThat(node(2L).getSubtreeSize()).isEqualTo(2);
+        assertThat(node(3L).getSubtreeSize()).isEqualTo(1);
+        assertThat(node(3L).getBestSubtreeScore()).isEqualTo(6.0);
+        assertThat(node(6L).getBestSubtreeScore()).isEqualTo(5.5);
+        assertThat(node(7L).getBestSubtreeScore()).isNull();
+    }
+
+    @Test
+    void appendedKeywordsUpdateTheAggregatesOnTheNextQuery() {
+        index.subtree(NICHE, null, null, 100);
+        index.addAll(NICHE, List.of(keyword(8L, 3L, 10.0), keyword(9L, 8L, 4.0)));
+
+        KeywordTreeNode root = node(1L);
+        assertThat(root.getSubtreeSize()).isEqualTo(6);
+        assertThat(root.getBestSubtreeScore()).isEqualTo(10.0);
+        assertThat(node(3L).getChildCount()).isEqualTo(1);
+        assertThat(index.path(NICHE, 9L).orElseThrow()).extracting(KeywordTreeNode::getId)
+                .containsExactly(1L, 3L, 8L, 9L);
+        // Loaded once; appends do not go back to the database
+        verify(keywordRepository, times(1)).findKeywordTreeRows(NICHE, 0L);
+    }
+
+    @Test
+    void frontierHoldsTheBestUnexpandedScoredKeywords() {
+        assertThat(index.frontier(NICHE, 10)).extracting(KeywordTreeNode::getId).containsExactly(5L, 3L);
+        assertThat(index.frontier(NICHE, 1)).extracting(KeywordTreeNode::getId).containsExactly(5L);
+
+        index.updateStatus(NICHE, 4L, KeywordStatus.UNWRITTEN);
+        assertThat(index.frontier(NICHE, 10)).extracting(KeywordTreeNode::getId).containsExactly(4L, 5L, 3L);
+
+        index.addAll(NICHE, List.of(keyword(8L, 5L, 2.0)));
+        assertThat(index.frontier(NICHE, 10)).extracting(KeywordTreeNode::getId).containsExactly(4L, 3L, 8L);
+    }
+
+    @Test
+    void subtreeHonoursRootDepthAndLimit() {
+        assertThat(index.subtree(NICHE, 1L, 1, 100).orElseThrow()).extracting(KeywordTreeNode::getId)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(index.subtree(NICHE, 2L, null, 100).orElseThrow()).extracting(KeywordTreeNode::getId)
+                .containsExactly(2L, 4L);
+        assertThat(index.subtree(NICHE, null, null, 2).orElseThrow()).extracting(KeywordTreeNode::getId)
+                .containsExactly(1L, 2L);
+        assertThat(index.subtree(NICHE, 42L, null, 100)).isEmpty();
+
+        assertThatThrownBy(() -> index.subtree(NICHE, null, -1, 100)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.subtree(NICHE, null, null, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void appendsToANicheThatIsNotLoadedAreLeftToTheDatabase() {
+        index.addAll(NICHE, List.of(keyword(8L, 1L, 1.0)));
+
+        assertThat(index.getStats().getNichesLoaded()).isZero();
+        assertThat(node(1L).getSubtreeSize()).isEqualTo(4);
+    }
+
+    private KeywordTreeNode node(Long id) {
+        return index.subtree(NICHE, id, 0, 1).orElseThrow().get(0);
+    }
+
+    private static Object[] row(Long id, Long parentId, Integer depth, Double score, KeywordStatus status) {
+        return new Object[] {id, parentId, "keyword " + id, depth, score, status};
+    }
+
+    private static PotentialKeyword keyword(Long id, Long parentId, Double score) {
+        PotentialKeyword parent = new PotentialKeyword();
+        parent.setId(parentId);
+        PotentialKeyword keyword = new PotentialKeyword();
+        keyword.setId(id);
+        keyword.setParentKeyword(parent);
+        keyword.setKeywordText("keyword " + id);
+        keyword.setDepthLevel(2);
+        keyword.setQualificationScore(score);
+        keyword.setStatus(KeywordStatus.UNWRITTEN);
+        return keyword;
+    }
+}
@@ -0,0 +1,84 @@
+package com.seo.content.index;
+
+import com.seo.content.repository.KeywordVariantRepository;
+import com.seo.content.repository.PotentialKeywordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KnownKeywordFilterTest {
+
+    private final PotentialKeywordRepository keywordRepository = mock(PotentialKeywordRepository.class);
+    private final KeywordVariantRepository variantRepository = mock(KeywordVariantRepository.class);
+    private final KnownKeywordFilter filter;
+
+    KnownKeywordFilterTest() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        filter = new KnownKeywordFilter(keywordRepository, variantRepository,
+                new TransactionTemplate(transactionManager), 1_000, 0.01);
+    }
+
+    @Test
+    void reportsEveryKeywordAsPossibleUntilBuilt() {
+        assertThat(filter.mightContain("anything")).isTrue();
+        assertThat(filter.getStats().isReady()).isFalse();
+    }
+
+    @Test
+    void keywordsAddedDuringARebuildAreNotLost() throws Exception {
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch added = new CountDownLatch(1);
+        when(keywordRepository.count()).thenReturn(2L);
+        when(variantRepository.count()).thenReturn(1L);
+        when(keywordRepository.streamAllKeywordTexts()).thenAnswer(invocation -> {
+            streaming.countDown();
+            added.await(5, TimeUnit.SECONDS);
+            return Stream.of("stored keyword", "other keyword");
+        });
+        when(variantRepository.streamAllVariantTexts()).thenAnswer(invocation -> Stream.of("stored variant"));
+
+        filter.rebuildAsync();
+        assertThat(streaming.await(5, TimeUnit.SECONDS)).isTrue();
+        // The database snapshot of the rebuild does not include this keyword
+        filter.addAll(List.of("added mid rebuild"));
+        added.countDown();
+        awaitReady();
+
+        assertThat(filter.mightContain("stored keyword")).isTrue();
+        assertThat(filter.mightContain("stored variant")).isTrue();
+        assertThat(filter.mightContain("added mid rebuild")).isTrue();
+    }
+
+    @Test
+    void keywordsAddedAfterTheBuildAreKnown() throws Exception {
+        when(keywordRepository.streamAllKeywordTexts()).thenAnswer(invocation -> Stream.of("stored keyword"));
+        when(variantRepository.streamAllVariantTexts()).thenAnswer(invocation -> Stream.empty());
+
+        filter.rebuildAsync();
+        awaitReady();
+        filter.addAll(List.of("saved later"));
+
+        assertThat(filter.mightContain("saved later")).isTrue();
+        assertThat(filter.mightContain("stored keyword")).isTrue();
+    }
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!filter.getStats().isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(filter.getStats().isReady()).isTrue();
+    }
+}
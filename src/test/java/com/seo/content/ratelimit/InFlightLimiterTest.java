@@ -0,0 +1,91 @@
+package com.seo.content.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightLimiterTest {
+
+    @Test
+    void cancelledWaitersDoNotKeepPermits() {
+        InFlightLimiter limiter = new InFlightLimiter(1);
+        Sinks.One<String> holder = Sinks.one();
+        Disposable running = limiter.withPermit(holder::asMono).subscribe();
+
+        List<Disposable> queued = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            queued.add(limiter.withPermit(() -> Mono.just("queued")).subscribe());
+        }
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getWaiting()).isEqualTo(5);
+
+        queued.forEach(Disposable::dispose);
+        assertThat(limiter.getWaiting()).isZero();
+
+        holder.tryEmitValue("done");
+        assertThat(running.isDisposed()).isTrue();
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.withPermit(() -> Mono.just("next")).block(Duration.ofSeconds(1))).isEqualTo("next");
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void cancelRacingTheHandoffReturnsThePermit() throws InterruptedException {
+        InFlightLimiter limiter = new InFlightLimiter(1);
+        for (int i = 0; i < 2_000; i++) {
+            Sinks.One<String> holder = Sinks.one();
+            limiter.withPermit(holder::asMono).subscribe();
+            Disposable waiter = limiter.withPermit(() -> Mono.just("waiter")).subscribe();
+
+            CountDownLatch start = new CountDownLatch(1);
+            Thread canceller = new Thread(() -> {
+                awaitQuietly(start);
+                waiter.dispose();
+            });
+            canceller.start();
+            start.countDown();
+            holder.tryEmitValue("done");
+            canceller.join();
+
+            assertThat(limiter.getInFlight()).as("iteration %d", i).isZero();
+            assertThat(limiter.getWaiting()).as("iteration %d", i).isZero();
+        }
+    }
+
+    @Test
+    void permitsAreHandedOnInOrder() {
+        InFlightLimiter limiter = new InFlightLimiter(2);
+        List<Sinks.One<String>> calls = new ArrayList<>();
+        List<String> completed = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Sinks.One<String> call = Sinks.one();
+            calls.add(call);
+            limiter.withPermit(call::asMono).subscribe(completed::add);
+        }
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getWaiting()).isEqualTo(2);
+
+        for (int i = 0; i < calls.size(); i++) {
+            calls.get(i).tryEmitValue("call " + i);
+        }
+        assertThat(completed).containsExactly("call 0", "call 1", "call 2", "call 3");
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
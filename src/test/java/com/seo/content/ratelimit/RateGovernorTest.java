@@ -0,0 +1,62 @@
+package com.seo.content.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateGovernorTest {
+
+    @Test
+    void parsesRetryAfterGivenInSeconds() {
+        assertThat(RateGovernor.parseRetryAfter("120")).contains(Duration.ofSeconds(120));
+        assertThat(RateGovernor.parseRetryAfter(" 0 ")).contains(Duration.ZERO);
+        assertThat(RateGovernor.parseRetryAfter("1.5")).contains(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void parsesRetryAfterGivenAsHttpDate() {
+        String inTwoMinutes = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(120));
+
+        Duration delay = RateGovernor.parseRetryAfter(inTwoMinutes).orElseThrow();
+
+        assertThat(delay).isBetween(Duration.ofSeconds(115), Duration.ofSeconds(120));
+    }
+
+    @Test
+    void aRetryAfterDateInThePastMeansRetryNow() {
+        assertThat(RateGovernor.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT")).contains(Duration.ZERO);
+    }
+
+    @Test
+    void ignoresMissingOrInvalidRetryAfter() {
+        assertThat(RateGovernor.parseRetryAfter(null)).isEmpty();
+        assertThat(RateGovernor.parseRetryAfter("  ")).isEmpty();
+        assertThat(RateGovernor.parseRetryAfter("soon")).isEmpty();
+        assertThat(RateGovernor.parseRetryAfter("-5")).isEmpty();
+        assertThat(RateGovernor.parseRetryAfter("NaN")).isEmpty();
+    }
+
+    @Test
+    void throttlingUsesRetryAfterCappedAtTheMaximumBackoff() {
+        RateGovernor governor = new RateGovernor(5, 5, 30, 4, 20_000, 1_000, 60);
+
+        assertThat(governor.onThrottled(RateGovernor.SUGGEST, "2", 0)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(governor.onThrottled(RateGovernor.SUGGEST, "3600", 0)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(governor.getStats().get(RateGovernor.SUGGEST).getPausedMsRemaining()).isGreaterThan(55_000);
+    }
+
+    @Test
+    void throttlingWithoutRetryAfterBacksOffExponentially() {
+        RateGovernor governor = new RateGovernor(5, 5, 30, 4, 20_000, 1_000, 60);
+
+        assertThat(governor.onThrottled(RateGovernor.SUGGEST, null, 0)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(governor.onThrottled(RateGovernor.SUGGEST, "garbage", 2)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(governor.onThrottled(RateGovernor.SUGGEST, null, 30)).isEqualTo(Duration.ofSeconds(60));
+    }
+}
@@ -0,0 +1,80 @@
+package com.seo.content.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void burstIsFreeThenCallersQueueInArrivalOrder() {
+        TokenBucket bucket = new TokenBucket("test", 10, 3);
+
+        assertThat(bucket.reserve(1)).isZero();
+        assertThat(bucket.reserve(1)).isZero();
+        assertThat(bucket.reserve(1)).isZero();
+
+        // Each caller past the burst reserves the next permit, 100 ms after the previous one
+        long first = bucket.reserve(1);
+        long second = bucket.reserve(1);
+        long third = bucket.reserve(1);
+        assertThat(first).isBetween(80 * MILLIS, 100 * MILLIS);
+        assertThat(second - first).isBetween(80 * MILLIS, 105 * MILLIS);
+        assertThat(third - second).isBetween(80 * MILLIS, 105 * MILLIS);
+    }
+
+    @Test
+    void requestsLargerThanTheCapacityAreClamped() {
+        TokenBucket bucket = new TokenBucket("test", 1, 2);
+
+        assertThat(bucket.reserve(50)).isZero();
+        assertThat(bucket.getAvailablePermits()).isCloseTo(0, within(0.5));
+    }
+
+    @Test
+    void chargedPermitsDelayLaterCallers() {
+        TokenBucket bucket = new TokenBucket("test", 10, 1);
+        bucket.charge(3);
+
+        // One permit left from the burst minus three charged: two in debt, plus the one requested
+        assertThat(bucket.reserve(1)).isBetween(250 * MILLIS, 300 * MILLIS);
+    }
+
+    @Test
+    void aPauseDelaysReservationsAndDropsTheSavedBurst() {
+        TokenBucket bucket = new TokenBucket("test", 10, 5);
+        bucket.pauseFor(200 * MILLIS);
+
+        // The burst is gone, so the first permit comes one interval after the pause ends
+        long first = bucket.reserve(1);
+        long second = bucket.reserve(1);
+        assertThat(first).isBetween(250 * MILLIS, 300 * MILLIS);
+        assertThat(second - first).isBetween(80 * MILLIS, 105 * MILLIS);
+        assertThat(bucket.getPausedNanosRemaining()).isBetween(100 * MILLIS, 200 * MILLIS);
+    }
+
+    @Test
+    void permitsDoNotAccrueWhilePaused() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket("test", 10, 5);
+        bucket.pauseFor(300 * MILLIS);
+        TimeUnit.MILLISECONDS.sleep(350);
+
+        // Only the time after the pause counts: about 0.5 permits, not 3.5
+        assertThat(bucket.getPausedNanosRemaining()).isZero();
+        assertThat(bucket.getAvailablePermits()).isBetween(0.0, 2.0);
+    }
+
+    @Test
+    void aShorterPauseDoesNotCutALongerOneShort() {
+        TokenBucket bucket = new TokenBucket("test", 10, 5);
+        bucket.pauseFor(TimeUnit.SECONDS.toNanos(10));
+        bucket.pauseFor(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(bucket.getPausedNanosRemaining()).isGreaterThan(TimeUnit.SECONDS.toNanos(9));
+    }
+}
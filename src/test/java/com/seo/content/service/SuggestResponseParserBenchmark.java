@@ -0,0 +1,100 @@
+package com.seo.content.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the streaming suggest parser with the regex it replaced and with binding the
+ * whole body to a JsonNode. The regex is kept here only as the cost baseline: it stops at
+ * escaped quotes and, matching only '["', returns the first suggestion alone.
+ * <p>
+ * Run with mvn test-compile, then
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main SuggestResponseParserBenchmark -prof gc
+ * where the test classpath comes from mvn dependency:build-classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestResponseParserBenchmark {
+
+    private static final Pattern SUGGESTION_PATTERN = Pattern.compile("\\[\"([^\"]+)\"");
+
+    // Google returns up to 10 suggestions per query, the expansion fan-out asks for more letters
+    @Param({"10", "100"})
+    private int suggestionCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SuggestResponseParser parser;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        parser = new SuggestResponseParser(objectMapper);
+        StringBuilder json = new StringBuilder("[\"home gardening\",[");
+        for (int i = 0; i < suggestionCount; i++) {
+            json.append(i > 0 ? "," : "").append("\"home gardening idea ").append(i).append(" caf\\u00e9\"");
+        }
+        json.append("],[],{\"google:suggestsubtypes\":[[512,433],[512]],\"google:verbatimrelevance\":1300}]");
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<String> streaming() throws IOException {
+        return parser.parse(new ByteArrayInputStream(body));
+    }
+
+    @Benchmark
+    public List<String> regex() {
+        List<String> suggestions = new ArrayList<>();
+        Matcher matcher = SUGGESTION_PATTERN.matcher(new String(body, StandardCharsets.UTF_8));
+        boolean first = true;
+        while (matcher.find()) {
+            if (first) {
+                first = false;
+                continue;
+            }
+            suggestions.add(matcher.group(1));
+        }
+        return suggestions;
+    }
+
+    @Benchmark
+    public List<String> tree() throws IOException {
+        List<String> suggestions = new ArrayList<>();
+        JsonNode root = objectMapper.readTree(body);
+        root.path(1).forEach(node -> suggestions.add(node.asText()));
+        return suggestions;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SuggestResponseParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
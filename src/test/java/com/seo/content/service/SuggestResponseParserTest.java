@@ -0,0 +1,68 @@
+package com.seo.content.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestResponseParserTest {
+
+    private final SuggestResponseParser parser = new SuggestResponseParser(new ObjectMapper());
+
+    @Test
+    void returnsEverySuggestionAfterTheQuery() throws IOException {
+        assertThat(parse("[\"garden\",[\"garden tools\",\"garden design\",\"garden centre\"]]"))
+                .containsExactly("garden tools", "garden design", "garden centre");
+    }
+
+    @Test
+    void decodesEscapedQuotesAndBackslashes() throws IOException {
+        assertThat(parse("[\"tv\",[\"55\\\" tv\",\"c:\\\\garden\",\"say \\\"hi\\\"\"]]"))
+                .containsExactly("55\" tv", "c:\\garden", "say \"hi\"");
+    }
+
+    @Test
+    void decodesUnicodeEscapesAndUtf8Bytes() throws IOException {
+        assertThat(parse("[\"cafe\",[\"caf\\u00e9 near me\",\"\\u00fcber garden\",\"jardín urbano\",\"盆栽\"]]"))
+                .containsExactly("café near me", "über garden", "jardín urbano", "盆栽");
+    }
+
+    @Test
+    void skipsNestedValuesInsideTheSuggestionArray() throws IOException {
+        assertThat(parse("[\"q\",[\"first\",[\"nested\",[\"deeper\"]],{\"k\":\"v\"},42,\"second\"]]"))
+                .containsExactly("first", "second");
+    }
+
+    @Test
+    void ignoresAQueryThatIsNotAString() throws IOException {
+        assertThat(parse("[[\"odd\",\"query\"],[\"only\"]]")).containsExactly("only");
+    }
+
+    @Test
+    void stopsReadingOnceTheSuggestionArrayCloses() throws IOException {
+        // Anything after the suggestions, even malformed, is never read
+        assertThat(parse("[\"q\",[\"a\",\"b\"],[],{\"google:suggesttype\":[\"QUERY\"]}, this is not json"))
+                .containsExactly("a", "b");
+    }
+
+    @Test
+    void returnsNothingForEmptyOrUnexpectedBodies() throws IOException {
+        assertThat(parser.parse(null)).isEmpty();
+        assertThat(parse("")).isEmpty();
+        assertThat(parse("{\"error\":\"quota\"}")).isEmpty();
+        assertThat(parse("[\"q\"]")).isEmpty();
+        assertThat(parse("[\"q\",\"not an array\"]")).isEmpty();
+        assertThat(parse("[\"q\",[]]")).isEmpty();
+    }
+
+    private List<String> parse(String body) throws IOException {
+        InputStream stream = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        return parser.parse(stream);
+    }
+}
@@ -15,6 +15,37 @@ GREEN='\033[0;32m'
 BLUE='\033[0;34m'
 NC='\033[0m' # No Color
 
+# /execute and /explore-keywords queue a background job and return its jobId.
+# Polls GET /api/workflow/jobs/{jobId} until the job is SUCCEEDED or FAILED.
+# The same progress is also streamed as server-sent events from /api/workflow/jobs/{jobId}/events.
+wait_for_job() {
+    local job_id=$1
+    local timeout=${2:-600}
+    local waited=0
+    local status state
+
+    if [ -z "$job_id" ] || [ "$job_id" == "null" ]; then
+        echo "No job was queued"
+        return 1
+    fi
+    while [ $waited -lt $timeout ]; do
+        status=$(curl -s ${BASE_URL}/api/workflow/jobs/${job_id})
+        state=$(echo "$status" | jq -r '.state')
+        case "$state" in
+            SUCCEEDED|FAILED)
+                echo "$status" | jq .
+                [ "$state" == "SUCCEEDED" ]
+                return
+                ;;
+        esac
+        echo "Job $job_id is $state ($(echo "$status" | jq -r '.stage // "-"'))..."
+        sleep 2
+        waited=$((waited + 2))
+    done
+    echo "Job $job_id did not finish within $timeout seconds"
+    return 1
+}
+
 # Test 1: Create Niche
 echo -e "${BLUE}1. Creating a new niche...${NC}"
 NICHE_RESPONSE=$(curl -s -X POST ${BASE_URL}/api/niches \
@@ -37,34 +68,49 @@ echo ""
 
 # Test 3: Explore keywords manually
 echo -e "${BLUE}3. Exploring keywords manually...${NC}"
-curl -s -X POST ${BASE_URL}/api/workflow/explore-keywords/${NICHE_ID} \
+EXPLORE_RESPONSE=$(curl -s -X POST ${BASE_URL}/api/workflow/explore-keywords/${NICHE_ID} \
   -H "Content-Type: application/json" \
   -d '{
     "seedKeywords": ["home gardening", "vegetable garden"],
     "depth": 1
-  }' | jq .
-echo -e "${GREEN}✓ Keyword exploration triggered${NC}"
+  }')
+echo "$EXPLORE_RESPONSE" | jq .
+echo -e "${GREEN}✓ Keyword exploration queued${NC}"
 echo ""
 
 # Wait for keyword discovery
-echo "Waiting 10 seconds for keyword discovery..."
-sleep 10
+echo "Waiting for keyword discovery..."
+if wait_for_job "$(echo "$EXPLORE_RESPONSE" | jq -r '.jobId')"; then
+    echo -e "${GREEN}✓ Keyword exploration finished${NC}"
+fi
+echo ""
 
 # Test 4: Get workflow statistics
 echo -e "${BLUE}4. Getting workflow statistics...${NC}"
 curl -s ${BASE_URL}/api/workflow/stats/${NICHE_ID} | jq .
 echo ""
 
+# Listings return one page: {"items": [...], "nextCursor": ..., "hasMore": ..., "limit": ...}.
+# Pass limit=N (default 50, max 200) for the page size and cursor=<nextCursor> for the next page.
+
 # Test 5: Get discovered keywords
 echo -e "${BLUE}5. Getting discovered keywords...${NC}"
-curl -s "${BASE_URL}/api/workflow/keywords/${NICHE_ID}?status=UNWRITTEN" | jq '.[0:5]'
+KEYWORD_PAGE=$(curl -s "${BASE_URL}/api/workflow/keywords/${NICHE_ID}?status=UNWRITTEN&limit=5")
+echo "$KEYWORD_PAGE" | jq '.items'
+NEXT_CURSOR=$(echo "$KEYWORD_PAGE" | jq -r '.nextCursor')
+if [ "$NEXT_CURSOR" != "null" ]; then
+    echo "Next page:"
+    curl -s -G "${BASE_URL}/api/workflow/keywords/${NICHE_ID}" \
+      --data-urlencode "status=UNWRITTEN" --data-urlencode "limit=5" \
+      --data-urlencode "cursor=${NEXT_CURSOR}" | jq '.items'
+fi
 echo ""
 
 # Test 6: Get unwritten keywords
 echo -e "${BLUE}6. Getting unwritten qualified keywords...${NC}"
 KEYWORDS=$(curl -s ${BASE_URL}/api/workflow/unwritten-keywords/${NICHE_ID})
-echo "$KEYWORDS" | jq '.[0:5]'
-KEYWORD_ID=$(echo "$KEYWORDS" | jq -r '.[0].id')
+echo "$KEYWORDS" | jq '.items[0:5]'
+KEYWORD_ID=$(echo "$KEYWORDS" | jq -r '.items[0].id')
 echo -e "${GREEN}✓ Found keyword ID: $KEYWORD_ID${NC}"
 echo ""
 
@@ -81,18 +127,22 @@ fi
 
 # Test 8: Get all articles
 echo -e "${BLUE}8. Getting all articles...${NC}"
-curl -s ${BASE_URL}/api/workflow/articles/${NICHE_ID} | jq .
+curl -s ${BASE_URL}/api/workflow/articles/${NICHE_ID} | jq '.items'
 echo ""
 
 # Test 9: Execute full daily workflow
 echo -e "${BLUE}9. Executing full daily workflow...${NC}"
-curl -s -X POST ${BASE_URL}/api/workflow/execute/${NICHE_ID} | jq .
-echo -e "${GREEN}✓ Daily workflow executed${NC}"
+EXECUTE_RESPONSE=$(curl -s -X POST ${BASE_URL}/api/workflow/execute/${NICHE_ID})
+echo "$EXECUTE_RESPONSE" | jq .
+echo -e "${GREEN}✓ Daily workflow queued${NC}"
 echo ""
 
 # Wait for workflow completion
-echo "Waiting 30 seconds for workflow completion..."
-sleep 30
+echo "Waiting for workflow completion..."
+if wait_for_job "$(echo "$EXECUTE_RESPONSE" | jq -r '.jobId')" 1800; then
+    echo -e "${GREEN}✓ Daily workflow finished${NC}"
+fi
+echo ""
 
 # Test 10: Get execution logs
 echo -e "${BLUE}10. Getting exploration logs...${NC}"
@@ -106,7 +156,7 @@ echo ""
 
 # Test 12: Filter keywords by depth
 echo -e "${BLUE}12. Getting depth-1 keywords...${NC}"
-curl -s "${BASE_URL}/api/workflow/keywords/${NICHE_ID}?depth=1" | jq '.[0:5]'
+curl -s "${BASE_URL}/api/workflow/keywords/${NICHE_ID}?depth=1&limit=5" | jq '.items'
 echo ""
 
 # Test 13: Update niche